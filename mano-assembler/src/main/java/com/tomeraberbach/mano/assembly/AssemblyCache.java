@@ -0,0 +1,255 @@
+package com.tomeraberbach.mano.assembly;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class representing an on-disk cache of the {@link Program} instances compiled and the {@link
+ * ObjectModule} instances assembled from assembly source code, addressed by a hash of the source
+ * code and of {@link AssemblyCache#VERSION}.
+ *
+ * <p>Each entry is stored in its own file, which is written to a temporary file and then atomically
+ * renamed into place, so several JVMs on one machine can share a cache directory without ever
+ * reading a partially written entry. Reading an entry marks it as recently used, and once the
+ * entries take up more than the size limit the least recently used are deleted. The size of the
+ * entries is tracked in memory, so the directory is only listed when the cache is created and when
+ * the tracked size goes over the limit, at which point entries written by other JVMs are counted
+ * too. A cache which cannot be read from or written to behaves as if it were empty.
+ */
+public class AssemblyCache {
+  /**
+   * The version of the entries, which is that of {@link ObjectModule} so that entries of an older
+   * format or assembler are no longer used. {@link ObjectModule#VERSION} must change whenever the
+   * {@link Program} compiled from the same source code may change.
+   */
+  public static final String VERSION = Integer.toString(ObjectModule.VERSION);
+
+  /** The extension of the file of each {@link Program} entry. */
+  private static final String PROGRAM = ".program";
+
+  /** The extension of the file of each {@link ObjectModule} entry. */
+  private static final String MODULE = ".module";
+
+  /** The directory where the entries of this {@link AssemblyCache} are stored. */
+  private final Path directory;
+
+  /** The maximum number of bytes the entries of this {@link AssemblyCache} may take up. */
+  private final long limit;
+
+  /**
+   * The number of bytes the entries of this {@link AssemblyCache} take up, as of the last listing
+   * of this {@link AssemblyCache#directory} plus the entries written since.
+   */
+  private final AtomicLong size;
+
+  /**
+   * Lists {@code directory} to find the size of the entries already stored there.
+   *
+   * @param directory The directory where the entries of this {@link AssemblyCache} are stored,
+   *     which is created if it does not exist.
+   * @param limit The maximum number of bytes the entries of this {@link AssemblyCache} may take up.
+   * @throws IOException Thrown if {@code directory} could not be created or listed.
+   */
+  public AssemblyCache(Path directory, long limit) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.limit = limit;
+    size = new AtomicLong();
+    evict();
+  }
+
+  /**
+   * @param source The assembly source code to get the compiled {@link Program} of.
+   * @return The {@link Program} cached for {@code source}, or {@code null} if there is none.
+   */
+  public Program get(String source) {
+    ObjectModule module = read(path(source, PROGRAM));
+    return module == null ? null : module.program();
+  }
+
+  /**
+   * Caches {@code program} for {@code source} and then evicts the least recently used entries until
+   * the entries take up no more than this {@link AssemblyCache#limit}.
+   *
+   * @param source The assembly source code which {@code program} was compiled from.
+   * @param program The {@link Program} compiled from {@code source}.
+   */
+  public void put(String source, Program program) {
+    write(path(source, PROGRAM), ObjectModule.of(program));
+  }
+
+  /**
+   * @param source The assembly source code to get the assembled {@link ObjectModule} of.
+   * @return The {@link ObjectModule} cached for {@code source}, or {@code null} if there is none.
+   */
+  public ObjectModule getModule(String source) {
+    return read(path(source, MODULE));
+  }
+
+  /**
+   * Caches {@code module} for {@code source} and then evicts the least recently used entries until
+   * the entries take up no more than this {@link AssemblyCache#limit}.
+   *
+   * @param source The assembly source code which {@code module} was assembled from.
+   * @param module The {@link ObjectModule} assembled from {@code source}.
+   */
+  public void putModule(String source, ObjectModule module) {
+    write(path(source, MODULE), module);
+  }
+
+  /**
+   * @param path {@link Path} of an entry.
+   * @return The {@link ObjectModule} stored at {@code path}, or {@code null} if there is none.
+   */
+  private ObjectModule read(Path path) {
+    try (InputStream in = Files.newInputStream(path)) {
+      ObjectModule module = ObjectModule.read(in);
+
+      // Marks the entry as recently used
+      Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+
+      return module;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Stores {@code module} at {@code path} and then evicts the least recently used entries until the
+   * entries take up no more than this {@link AssemblyCache#limit}.
+   *
+   * @param path {@link Path} of the entry.
+   * @param module {@link ObjectModule} to store.
+   */
+  private void write(Path path, ObjectModule module) {
+    Path temporary = null;
+
+    try {
+      temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        module.write(out);
+      }
+
+      long written = Files.size(temporary);
+      Files.move(
+          temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      temporary = null;
+
+      // A replaced entry is counted twice until the next listing, which only evicts early
+      if (size.addAndGet(written) > limit) {
+        evict();
+      }
+    } catch (IOException e) {
+      // Leaves the source code uncached
+    } finally {
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+          // Leaves the temporary file behind, which is never read as an entry
+        }
+      }
+    }
+  }
+
+  /**
+   * Lists this {@link AssemblyCache#directory} to recount this {@link AssemblyCache#size}, and
+   * deletes the least recently used entries until they take up no more than this {@link
+   * AssemblyCache#limit}. Entries deleted by another JVM in the meantime are skipped.
+   *
+   * @throws IOException Thrown if this {@link AssemblyCache#directory} could not be listed.
+   */
+  private synchronized void evict() throws IOException {
+    ArrayList<Path> paths = new ArrayList<>();
+    ArrayList<BasicFileAttributes> attributes = new ArrayList<>();
+    long total = 0;
+
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(directory, "*{" + PROGRAM + "," + MODULE + "}")) {
+      for (Path path : stream) {
+        try {
+          BasicFileAttributes attribute = Files.readAttributes(path, BasicFileAttributes.class);
+          paths.add(path);
+          attributes.add(attribute);
+          total += attribute.size();
+        } catch (NoSuchFileException e) {
+          // Skips the entry which was already deleted
+        }
+      }
+    }
+
+    if (total <= limit) {
+      size.set(total);
+      return;
+    }
+
+    // Sorts the entries from least to most recently used
+    ArrayList<Integer> order = new ArrayList<>();
+
+    for (int i = 0; i < paths.size(); i++) {
+      order.add(i);
+    }
+
+    Collections.sort(order, Comparator.comparing(i -> attributes.get(i).lastModifiedTime()));
+
+    for (int i = 0; i < order.size() && total > limit; i++) {
+      int index = order.get(i);
+
+      try {
+        Files.deleteIfExists(paths.get(index));
+      } catch (IOException e) {
+        // Skips the entry which another JVM may be reading
+        continue;
+      }
+
+      total -= attributes.get(index).size();
+    }
+
+    size.set(total);
+  }
+
+  /**
+   * @param source Assembly source code.
+   * @param extension The extension of the kind of entry.
+   * @return The {@link Path} of the entry of {@code source}, which is named after the SHA-256 hash
+   *     of {@link AssemblyCache#VERSION} and {@code source}.
+   */
+  private Path path(String source, String extension) {
+    MessageDigest digest;
+
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported.", e);
+    }
+
+    digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(source.getBytes(StandardCharsets.UTF_8));
+
+    StringBuilder builder = new StringBuilder();
+
+    for (byte b : digest.digest()) {
+      builder
+          .append(Character.forDigit((b >> 4) & 0xF, 16))
+          .append(Character.forDigit(b & 0xF, 16));
+    }
+
+    return directory.resolve(builder.append(extension).toString());
+  }
+}
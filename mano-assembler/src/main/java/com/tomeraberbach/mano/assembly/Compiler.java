@@ -0,0 +1,798 @@
+package com.tomeraberbach.mano.assembly;
+
+import com.tomeraberbach.mano.simulation.Computer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class representing a compiler which compiles assembly code for Mano's computer as detailed in:
+ * <br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ */
+public class Compiler {
+  /** Stream of {@link Token} instances which a {@link Compiler} parses one at a time. */
+  interface Tokens {
+    /**
+     * @return boolean representing if there are no {@link Token} instances left.
+     */
+    boolean isEmpty();
+
+    /**
+     * @return The next {@link Token} without consuming it, or {@code null} if there are none left.
+     */
+    Token peek();
+
+    /**
+     * @return The next {@link Token}, or {@code null} if there are none left.
+     */
+    Token poll();
+  }
+
+  /** Snapshot of the state of a {@link Compiler} between two statements. */
+  static class Checkpoint {
+    /** The current address of the {@link Compiler}. */
+    private final int address;
+
+    /** The address set by a START directive, or -1 if none was parsed. */
+    private final int start;
+
+    /** The number of {@link Instruction} instances parsed. */
+    private final int instructions;
+
+    /** The number of label arguments parsed. */
+    private final int arguments;
+
+    /** The number of errors logged. */
+    private final int errors;
+
+    /** The number of {@link Label} instances defined. */
+    private final int definitions;
+
+    /**
+     * @param compiler {@link Compiler} whose state to snapshot.
+     */
+    private Checkpoint(Compiler compiler) {
+      address = compiler.address;
+      start = compiler.start;
+      instructions = compiler.instructions.size();
+      arguments = compiler.arguments.size();
+      errors = compiler.errors.size();
+      definitions = compiler.definitions.size();
+    }
+
+    /**
+     * @return {@link Checkpoint#instructions}.
+     */
+    int instructions() {
+      return instructions;
+    }
+
+    /**
+     * @return {@link Checkpoint#errors}.
+     */
+    int errors() {
+      return errors;
+    }
+
+    /**
+     * @return {@link Checkpoint#definitions}.
+     */
+    int definitions() {
+      return definitions;
+    }
+
+    /**
+     * @param checkpoint {@link Checkpoint} to compare with.
+     * @return boolean representing if {@code checkpoint} has the same addresses and counts as this
+     *     {@link Checkpoint}.
+     */
+    boolean matches(Checkpoint checkpoint) {
+      return address == checkpoint.address
+          && start == checkpoint.start
+          && instructions == checkpoint.instructions
+          && arguments == checkpoint.arguments
+          && errors == checkpoint.errors
+          && definitions == checkpoint.definitions;
+    }
+  }
+
+  /**
+   * Everything a {@link Compiler} parsed after a {@link Checkpoint}, kept when it is restored so
+   * that the part after a later {@link Checkpoint} can be resumed instead of parsed again.
+   */
+  static class Suffix {
+    /** The {@link Checkpoint} this {@link Suffix} was parsed after. */
+    private final Checkpoint checkpoint;
+
+    /** The {@link Instruction} instances parsed after this {@link Suffix#checkpoint}. */
+    private final ArrayList<Instruction> instructions;
+
+    /** The label arguments parsed after this {@link Suffix#checkpoint}. */
+    private final ArrayList<String> arguments;
+
+    /** The errors logged after this {@link Suffix#checkpoint}. */
+    private final ArrayList<String> errors;
+
+    /** The lexemes of the {@link Label} instances defined after this {@link Suffix#checkpoint}. */
+    private final ArrayList<String> definitions;
+
+    /** The {@link Label} of each of this {@link Suffix#definitions}. */
+    private final ArrayList<Label> labels;
+
+    /** The address of the {@link Compiler} once it had parsed this {@link Suffix}. */
+    private final int address;
+
+    /** The address set by a START directive once this {@link Suffix} was parsed, or -1. */
+    private final int start;
+
+    /**
+     * @param compiler {@link Compiler} whose state since {@code checkpoint} to keep.
+     * @param checkpoint {@link Checkpoint} previously taken of {@code compiler}.
+     */
+    private Suffix(Compiler compiler, Checkpoint checkpoint) {
+      this.checkpoint = checkpoint;
+      instructions = tail(compiler.instructions, checkpoint.instructions);
+      arguments = tail(compiler.arguments, checkpoint.arguments);
+      errors = tail(compiler.errors, checkpoint.errors);
+      definitions = tail(compiler.definitions, checkpoint.definitions);
+      labels = new ArrayList<>(definitions.size());
+
+      for (String definition : definitions) {
+        labels.add(compiler.labelMap.get(definition));
+      }
+
+      address = compiler.address;
+      start = compiler.start;
+    }
+
+    /**
+     * @param list {@link ArrayList} to copy the end of.
+     * @param from The index of the first element to copy.
+     * @param <T> The type of the elements of {@code list}.
+     * @return {@link ArrayList} of the elements of {@code list} from {@code from} on.
+     */
+    private static <T> ArrayList<T> tail(ArrayList<T> list, int from) {
+      return new ArrayList<>(list.subList(from, list.size()));
+    }
+
+    /**
+     * @param old {@link Checkpoint} taken while this {@link Suffix} was parsed, or {@code null}.
+     * @return The lexemes of the {@link Label} instances this {@link Suffix} defined before {@code
+     *     old}, or all of them if {@code old} is {@code null}.
+     */
+    List<String> definitions(Checkpoint old) {
+      return old == null
+          ? definitions
+          : definitions.subList(0, old.definitions - checkpoint.definitions);
+    }
+
+    /**
+     * @return The number of errors the {@link Compiler} had logged once it had parsed this {@link
+     *     Suffix}.
+     */
+    int errors() {
+      return checkpoint.errors + errors.size();
+    }
+  }
+
+  /**
+   * The {@link AssemblyCache} which {@link Compiler#compile(String)} and {@link
+   * Compiler#assemble(String)} check before compiling, or {@code null} if they always compile.
+   */
+  private static volatile AssemblyCache cache;
+
+  /** The {@link Tokens} which this {@link Compiler} parses. */
+  private Tokens tokens;
+
+  /** {@link Map} which maps assembly label lexemes to their respective {@link Label} instances. */
+  private Map<String, Label> labelMap;
+
+  /** The lexemes of the keys of this {@link Compiler#labelMap} in the order they were defined. */
+  private ArrayList<String> definitions;
+
+  /**
+   * The {@link ArrayList} of {@link Instruction} instances which were compiled from this {@link
+   * Compiler#tokens}.
+   */
+  private ArrayList<Instruction> instructions;
+
+  /**
+   * The label argument of each instruction parsed by this {@link Compiler}, or {@code null} if it
+   * has none, to resolve once this {@link Compiler#labelMap} is full.
+   */
+  private ArrayList<String> arguments;
+
+  /**
+   * The {@link ArrayList} of errors encountered when attempting to compile this {@link
+   * Compiler#tokens}.
+   */
+  private ArrayList<String> errors;
+
+  /** The address where the program in this {@link Compiler#tokens} starts. */
+  private int start;
+
+  /** The current address this {@link Compiler} is at. */
+  private int address;
+
+  /** The current {@link Token} this {@link Compiler} has parsed. */
+  private Token token;
+
+  /**
+   * @param tokens The {@link Tokens} to parse.
+   */
+  Compiler(Tokens tokens) {
+    this.tokens = tokens;
+
+    labelMap = new HashMap<>();
+    definitions = new ArrayList<>();
+    instructions = new ArrayList<>();
+    arguments = new ArrayList<>();
+    errors = new ArrayList<>();
+
+    start = -1;
+    address = 0;
+    token = null;
+  }
+
+  /**
+   * @param source The assembly source code to compile.
+   * @return {@link Program} which is the result of compiling this {@code source}.
+   */
+  public static Program compile(String source) {
+    AssemblyCache cache = Compiler.cache;
+
+    if (cache == null) {
+      return new Compiler(new Lexer(source)).compile();
+    }
+
+    // Skips lexing and parsing when the source code was compiled before
+    Program program = cache.get(source);
+
+    if (program == null) {
+      program = new Compiler(new Lexer(source)).compile();
+      cache.put(source, program);
+    }
+
+    return program;
+  }
+
+  /**
+   * @param cache The {@link AssemblyCache} which {@link Compiler#compile(String)} and {@link
+   *     Compiler#assemble(String)} should check before compiling, or {@code null} if they should
+   *     always compile.
+   */
+  public static void cache(AssemblyCache cache) {
+    Compiler.cache = cache;
+  }
+
+  /**
+   * @param source The assembly source code to assemble.
+   * @return {@link ObjectModule} which is the result of assembling {@code source} without requiring
+   *     every label argument to be defined in it.
+   */
+  public static ObjectModule assemble(String source) {
+    AssemblyCache cache = Compiler.cache;
+
+    if (cache == null) {
+      return new Compiler(new Lexer(source)).assemble();
+    }
+
+    // Skips lexing and parsing when the source code was assembled before
+    ObjectModule module = cache.getModule(source);
+
+    if (module == null) {
+      module = new Compiler(new Lexer(source)).assemble();
+      cache.putModule(source, module);
+    }
+
+    return module;
+  }
+
+  /**
+   * @return {@link ObjectModule} which is the result of assembling this {@link Compiler#tokens},
+   *     with an import and a relocation entry for each label argument which was never defined.
+   */
+  private ObjectModule assemble() {
+    while (!tokens.isEmpty() && statement()) {}
+
+    ArrayList<Instruction> code = new ArrayList<>(instructions.size());
+    ArrayList<String> imports = new ArrayList<>();
+    Map<String, Integer> importIndices = new HashMap<>();
+    ArrayList<Integer> relocations = new ArrayList<>();
+    ArrayList<Integer> symbols = new ArrayList<>();
+
+    for (int i = 0; i < instructions.size(); i++) {
+      Instruction instruction = resolve(i);
+
+      if (instruction == null) {
+        // Leaves the argument of the instruction for the linker to fill in
+        String label = arguments.get(i);
+        Integer index = importIndices.get(label);
+
+        if (index == null) {
+          index = imports.size();
+          importIndices.put(label, index);
+          imports.add(label);
+        }
+
+        relocations.add(i);
+        symbols.add(index);
+        instruction = instructions.get(i);
+      }
+
+      code.add(instruction);
+    }
+
+    return new ObjectModule(start(), code, labels(), imports, relocations, symbols, errors);
+  }
+
+  /**
+   * @return {@link Program} which is the result of compiling this {@link Compiler#tokens}.
+   */
+  private Program compile() {
+    generate();
+    return new Program(start(), instructions, new ArrayList<>(labelMap.values()), errors);
+  }
+
+  /**
+   * Interprets {@link Token} instances as they are scanned by {@link Compiler#tokens}:
+   *
+   * <ul>
+   *   <li>Maps instructions to their respective codes (see {@link
+   *       Instruction#MEMORY_REFERENCE_INSTRUCTIONS} and {@link
+   *       Instruction#IMPLICIT_REFERENCE_INSTRUCTIONS}.
+   *   <li>Interprets directives.
+   *   <li>Parses decimal and hexadecimal numbers literals.
+   *   <li>Collects labels in preparation for calling {@link Compiler#replaceLabels()}.
+   * </ul>
+   *
+   * {@link Instruction} instances generated will be added to {@link Compiler#instructions}. All
+   * errors are logged as {@link String} instances in {@link Compiler#errors}.
+   */
+  private void generate() {
+    while (!tokens.isEmpty() && statement()) {}
+
+    replaceLabels();
+  }
+
+  /**
+   * Interprets the next statement of {@link Compiler#tokens}, which must not be empty, as detailed
+   * in {@link Compiler#generate()}.
+   *
+   * @return boolean representing if parsing should continue, which is false after an END directive
+   *     or a label without an instruction.
+   */
+  boolean statement() {
+    // Gets the next token
+    token = tokens.poll();
+
+    if (isLabel()) {
+      Token label = token;
+      label();
+
+      if (token == null) {
+        errors.add("Missing instruction after label, " + label + ".");
+        return false;
+      }
+    }
+
+    String lexeme = token.lexeme().toUpperCase();
+
+    switch (lexeme) {
+      case "ORG":
+        org(false);
+        break;
+
+      case "START":
+        org(true);
+        if (start < 0) {
+          start = address;
+        } else {
+          errors.add("Encountered directive, " + token + ", twice.");
+        }
+        break;
+
+      case "END":
+        // Checks if there are still tokens left
+        if (!tokens.isEmpty()) {
+          errors.add("Encountered directive, " + token + ", before end of code.");
+        }
+
+        return false;
+
+      default:
+        // Checks if the argument is a decimal or hexadecimal number literal
+        if (lexeme.equals("DEC") || lexeme.equals("HEX")) {
+          // Checks if no number literal follows the decimal or hexadecimal label
+          if (tokens.isEmpty()) {
+            errors.add(
+                "Missing "
+                    + (lexeme.equals("HEX") ? "hexadecimal" : "decimal")
+                    + " number literal after "
+                    + token
+                    + ".");
+          } else {
+            Token argument = tokens.poll();
+
+            // Gets the argument as a 12 bit number
+            int number =
+                get12BitNumber(
+                    (lexeme.equals("HEX") ? "0x" : "") + argument.lexeme(),
+                    Computer.maxValue(Computer.VALUE_SIZE));
+
+            // Checks if the argument was a valid address
+            if (number >= 0) {
+              // Adds the *instruction*
+              instruction(new Instruction(address, number, token, argument), null);
+            } else {
+              errors.add("Invalid address, " + argument + ".");
+            }
+          }
+        } else if (Instruction.MEMORY_REFERENCE_INSTRUCTIONS.containsKey(lexeme)) {
+          // Checks if there is no argument following the memory reference instruction
+          if (tokens.isEmpty()) {
+            errors.add("Missing argument after memory address instruction, " + token + ".");
+          } else {
+            // Gets the argument
+            Token argument = tokens.poll();
+
+            Instruction instruction;
+
+            // Checks if indirect addressing is being used
+            instruction =
+                !tokens.isEmpty() && tokens.peek().lexeme().equals("I")
+                    ? new Instruction(
+                            address,
+                            Instruction.MEMORY_REFERENCE_INSTRUCTIONS.get(lexeme),
+                            token,
+                            argument,
+                            tokens.poll())
+                        .indirect()
+                    : new Instruction(
+                        address,
+                        Instruction.MEMORY_REFERENCE_INSTRUCTIONS.get(lexeme),
+                        token,
+                        argument);
+
+            // Saves the label argument to resolve later once the symbol table is full
+            instruction(instruction, argument.lexeme());
+          }
+        } else if (Instruction.IMPLICIT_REFERENCE_INSTRUCTIONS.containsKey(lexeme)) {
+          instruction(
+              new Instruction(
+                  address, Instruction.IMPLICIT_REFERENCE_INSTRUCTIONS.get(lexeme), token),
+              null);
+        } else {
+          errors.add(
+              "Invalid instruction token, "
+                  + token
+                  + (instructions.isEmpty()
+                      ? ""
+                      : " or potentially unneeded argument after "
+                          + instructions.get(instructions.size() - 1).tokens()[0])
+                  + ".");
+        }
+
+        // Increments the address and checks that it did not go outside the bounds of the RAM
+        if (++address == 0) {
+          errors.add("Instruction address overflow from 4096 to 0 at token, " + token + ".");
+        }
+
+        break;
+    }
+
+    return true;
+  }
+
+  /**
+   * Adds {@code instruction} to {@link Compiler#instructions} and its label argument to {@link
+   * Compiler#arguments}.
+   *
+   * @param instruction {@link Instruction} which was parsed.
+   * @param argument The label argument of {@code instruction}, or {@code null} if it has none.
+   */
+  private void instruction(Instruction instruction, String argument) {
+    instructions.add(instruction);
+    arguments.add(argument);
+  }
+
+  /**
+   * @return The address where the program parsed by this {@link Compiler} starts, which is the
+   *     address of its first {@link Instruction} when there is no START directive.
+   */
+  int start() {
+    if (start >= 0) {
+      return start;
+    }
+
+    return instructions.isEmpty() ? 0 : instructions.get(0).address();
+  }
+
+  /**
+   * @param tokens The {@link Tokens} to parse from now on.
+   */
+  void tokens(Tokens tokens) {
+    this.tokens = tokens;
+  }
+
+  /**
+   * @return {@link Checkpoint} of the current state of this {@link Compiler}.
+   */
+  Checkpoint checkpoint() {
+    return new Checkpoint(this);
+  }
+
+  /**
+   * Discards everything parsed since {@code checkpoint} was taken.
+   *
+   * @param checkpoint {@link Checkpoint} previously taken of this {@link Compiler}.
+   */
+  void restore(Checkpoint checkpoint) {
+    address = checkpoint.address;
+    start = checkpoint.start;
+    instructions.subList(checkpoint.instructions, instructions.size()).clear();
+    arguments.subList(checkpoint.arguments, arguments.size()).clear();
+    errors.subList(checkpoint.errors, errors.size()).clear();
+
+    List<String> removed = definitions.subList(checkpoint.definitions, definitions.size());
+    labelMap.keySet().removeAll(removed);
+    removed.clear();
+  }
+
+  /**
+   * @param checkpoint {@link Checkpoint} previously taken of this {@link Compiler}.
+   * @return {@link Suffix} of everything parsed since {@code checkpoint} was taken.
+   */
+  Suffix suffix(Checkpoint checkpoint) {
+    return new Suffix(this, checkpoint);
+  }
+
+  /**
+   * {@code current} and {@code old} having the same counts is not enough for parsing to go on the
+   * same way from both: the same labels must be defined, since a label defined again is an error,
+   * and the last {@link Instruction} must come from the same {@link Token}, since an invalid
+   * instruction token is reported with it.
+   *
+   * @param current {@link Checkpoint} of the current state of this {@link Compiler}, taken after
+   *     restoring {@link Suffix#checkpoint} of {@code suffix} and parsing again.
+   * @param suffix {@link Suffix} of what this {@link Compiler} parsed before it was restored.
+   * @param old {@link Checkpoint} taken while {@code suffix} was parsed.
+   * @return boolean representing if parsing on from {@code current} would give what {@code suffix}
+   *     holds after {@code old}.
+   */
+  boolean resumable(Checkpoint current, Suffix suffix, Checkpoint old) {
+    Checkpoint from = suffix.checkpoint;
+
+    if (!current.matches(old)
+        || !definitions
+            .subList(from.definitions, current.definitions)
+            .equals(suffix.definitions.subList(0, old.definitions - from.definitions))) {
+      return false;
+    }
+
+    int last = current.instructions - 1;
+
+    return last < from.instructions
+        || instructions.get(last).tokens()[0]
+            == suffix.instructions.get(last - from.instructions).tokens()[0];
+  }
+
+  /**
+   * Appends everything in {@code suffix} parsed after {@code old}, as if it were parsed again.
+   * {@link Compiler#resumable(Checkpoint, Suffix, Checkpoint)} must hold for the current state.
+   *
+   * @param suffix {@link Suffix} of what this {@link Compiler} parsed before it was restored.
+   * @param old {@link Checkpoint} taken while {@code suffix} was parsed.
+   */
+  void resume(Suffix suffix, Checkpoint old) {
+    Checkpoint from = suffix.checkpoint;
+    int definition = old.definitions - from.definitions;
+
+    instructions.addAll(
+        suffix.instructions.subList(
+            old.instructions - from.instructions, suffix.instructions.size()));
+    arguments.addAll(
+        suffix.arguments.subList(old.arguments - from.arguments, suffix.arguments.size()));
+    errors.addAll(suffix.errors.subList(old.errors - from.errors, suffix.errors.size()));
+    definitions.addAll(suffix.definitions.subList(definition, suffix.definitions.size()));
+
+    for (int i = definition; i < suffix.definitions.size(); i++) {
+      labelMap.put(suffix.definitions.get(i), suffix.labels.get(i));
+    }
+
+    address = suffix.address;
+    start = suffix.start;
+  }
+
+  /**
+   * @return {@link Compiler#instructions}, whose label arguments are not resolved.
+   */
+  ArrayList<Instruction> instructions() {
+    return instructions;
+  }
+
+  /**
+   * @return {@link Compiler#errors}, which does not include unrecognized label arguments.
+   */
+  ArrayList<String> errors() {
+    return errors;
+  }
+
+  /**
+   * @return {@link Compiler#definitions}.
+   */
+  ArrayList<String> definitions() {
+    return definitions;
+  }
+
+  /**
+   * @return {@link ArrayList} of the {@link Label} instances in this {@link Compiler#labelMap}, in
+   *     the order {@link Compiler#compile()} would list them.
+   */
+  ArrayList<Label> labels() {
+    // Rebuilds the map in definition order so that its iteration order does not depend on removals
+    Map<String, Label> map = new HashMap<>();
+
+    for (String definition : definitions) {
+      map.put(definition, labelMap.get(definition));
+    }
+
+    return new ArrayList<>(map.values());
+  }
+
+  /**
+   * @return boolean representing if the current {@link Token} ({@link Compiler#token}) is a {@link
+   *     Label}.
+   */
+  private boolean isLabel() {
+    // Checks if the next token is a comma
+    return !tokens.isEmpty() && tokens.peek().lexeme().equals(",");
+  }
+
+  /**
+   * Treats the current {@link Token} ({@link Compiler#token}) as a {@link Label} and logs it in
+   * {@link Compiler#labelMap}.
+   */
+  private void label() {
+    if (labelMap.containsKey(token.lexeme())) {
+      errors.add("Duplicate label, " + token + ".");
+    } else {
+      // Adds the label to the symbol table
+      labelMap.put(token.lexeme(), new Label(token, address));
+      definitions.add(token.lexeme());
+    }
+
+    // Skips the comma
+    tokens.poll();
+
+    // Sets the current token to the token after the comma
+    token = tokens.poll();
+  }
+
+  /**
+   * Interprets an ORG directive by parsing its number argument and changing the current address
+   * ({@link Compiler#address}).
+   */
+  private void org(boolean start) {
+    // Checks if there is no argument after ORG
+    if (tokens.isEmpty()) {
+      errors.add("Missing argument after directive, " + token + ".");
+    } else {
+      // Gets the ORG's argument
+      int number =
+          get12BitNumber("0x" + tokens.peek().lexeme(), Computer.maxValue(Computer.ADDRESS_SIZE));
+
+      // Checks if the argument was a valid address
+      if (number >= 0) {
+        // Sets the current address and skips the number
+        address = number;
+        tokens.poll();
+      } else {
+        errors.add("Invalid address, " + (start ? "START" : "ORG") + " " + tokens.peek() + ".");
+      }
+    }
+  }
+
+  /**
+   * @param lexeme {@link String} representing a number to parse.
+   * @param range The inclusive upper bound to which the parsed number has to conform.
+   * @return -1 if {@code lexeme} is not a number or not on the interval [0, {@code range}], the
+   *     integer represented by {@code lexeme} otherwise.
+   */
+  private static int get12BitNumber(String lexeme, int range) {
+    try {
+      int number = Integer.decode(lexeme);
+
+      // Checks that the number is within the specified range
+      if (Math.abs(number) >= 0 && Math.abs(number) <= range) {
+        return number < 0 ? range + 1 + number : number;
+      }
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Replaces the label arguments of the {@link Instruction} instances in {@link
+   * Compiler#instructions} with the addresses of their {@link Label} instances in {@link
+   * Compiler#labelMap}, logging an error for each label which was never defined.
+   */
+  private void replaceLabels() {
+    // Loops through the instructions to substitute labels for hex
+    for (int i = 0; i < instructions.size(); i++) {
+      Instruction instruction = resolve(i);
+
+      if (instruction == null) {
+        errors.add(unrecognized(i));
+      } else {
+        instructions.set(i, instruction);
+      }
+    }
+  }
+
+  /**
+   * @param i The index of an {@link Instruction} in {@link Compiler#instructions}.
+   * @return The label argument of the {@link Instruction} at {@code i}, or {@code null} if it has
+   *     none.
+   */
+  String argument(int i) {
+    return arguments.get(i);
+  }
+
+  /**
+   * @param i The index of an {@link Instruction} in {@link Compiler#instructions}.
+   * @return The {@link Instruction} at {@code i} with its label argument replaced by the address of
+   *     its {@link Label}, the {@link Instruction} itself if it has no label argument, or {@code
+   *     null} if its label was never defined.
+   */
+  Instruction resolve(int i) {
+    String label = arguments.get(i);
+
+    if (label == null) {
+      return instructions.get(i);
+    }
+
+    // Checks if the label was ever defined
+    Label definition = labelMap.get(label);
+    return definition == null ? null : instructions.get(i).argument(definition);
+  }
+
+  /**
+   * @param i The index of an {@link Instruction} in {@link Compiler#instructions} whose label
+   *     argument was never defined.
+   * @return The error describing the unrecognized label argument of the {@link Instruction} at
+   *     {@code i}.
+   */
+  String unrecognized(int i) {
+    return unrecognized(instructions.get(i));
+  }
+
+  /**
+   * @param instruction {@link Instruction} whose label argument was never defined.
+   * @return The error describing the unrecognized label argument of {@code instruction}.
+   */
+  static String unrecognized(Instruction instruction) {
+    Token[] tokens = instruction.tokens();
+
+    switch (tokens.length) {
+      case 1:
+        return "Unrecognized label name, " + tokens[0] + ".";
+      case 2:
+      case 3:
+        return "Unrecognized label name, "
+            + tokens[1]
+            + " or potentially missing argument after "
+            + tokens[0]
+            + ".";
+      default:
+        return "An unexpected error occurred while processing the following: " + tokens + ".";
+    }
+  }
+}
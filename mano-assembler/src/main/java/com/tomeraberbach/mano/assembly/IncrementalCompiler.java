@@ -0,0 +1,439 @@
+package com.tomeraberbach.mano.assembly;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class representing a compiler which recompiles assembly code for Mano's computer as it is edited
+ * as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>The {@link Token} instances of each line, the {@link Compiler} state before each line which
+ * starts a statement, and each resolved {@link Instruction} are kept between calls to {@link
+ * IncrementalCompiler#compile(String)}. After an edit only the changed lines are scanned again, and
+ * the lines after them are renumbered by moving the {@link Token.Line} of each rather than scanning
+ * them again. Parsing resumes from the last statement before the edit and stops at the first
+ * statement after it whose {@link Compiler} state matches the one it was parsed in before, where
+ * what was parsed from there on is kept. Only the label arguments whose {@link Label} may have
+ * changed are resolved again. The resulting {@link Program} is identical to the one {@link
+ * Compiler#compile(String)} returns for the same source code.
+ */
+public class IncrementalCompiler {
+  /** The {@link Token} instances of a line without any. */
+  private static final Token[] EMPTY = new Token[0];
+
+  /** The assembly source code most recently compiled. */
+  private String source;
+
+  /** The index of the first character of each line of this {@link IncrementalCompiler#source}. */
+  private int[] lineStarts;
+
+  /** The {@link Token} instances of each line of this {@link IncrementalCompiler#source}. */
+  private ArrayList<Token[]> lines;
+
+  /** The {@link Compiler} which has parsed this {@link IncrementalCompiler#source}. */
+  private Compiler compiler;
+
+  /** {@link Compiler.Checkpoint} of this {@link IncrementalCompiler#compiler} before parsing. */
+  private Compiler.Checkpoint initial;
+
+  /**
+   * {@link Compiler.Checkpoint} of this {@link IncrementalCompiler#compiler} before the statement
+   * starting with the first {@link Token} of each line, or {@code null} if no statement starts
+   * there.
+   */
+  private ArrayList<Compiler.Checkpoint> checkpoints;
+
+  /**
+   * Each {@link Instruction} parsed by this {@link IncrementalCompiler#compiler} with its label
+   * argument resolved, or {@code null} if its label was never defined.
+   */
+  private ArrayList<Instruction> resolved;
+
+  /**
+   * Maps each label argument to the indices of the {@link Instruction} instances in this {@link
+   * IncrementalCompiler#resolved} which were resolved with it. Indices which were since parsed
+   * again may be stale, so each is checked before it is used.
+   */
+  private Map<String, ArrayList<Integer>> references;
+
+  /** The most recently compiled {@link Program}. */
+  private Program program;
+
+  /** Initializes an {@link IncrementalCompiler} which has compiled empty source code. */
+  public IncrementalCompiler() {
+    source = "";
+    lineStarts = new int[] {0};
+    lines = new ArrayList<>();
+    lines.add(EMPTY);
+    compiler = new Compiler(new Lexer(""));
+    initial = compiler.checkpoint();
+    checkpoints = new ArrayList<>();
+    checkpoints.add(null);
+    resolved = new ArrayList<>();
+    references = new HashMap<>();
+    program = new Program(0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+  }
+
+  /**
+   * @return The most recently compiled {@link Program}.
+   */
+  public Program program() {
+    return program;
+  }
+
+  /**
+   * @param source The edited assembly source code to compile.
+   * @return {@link Program} which is the result of compiling {@code source}.
+   */
+  public Program compile(String source) {
+    String old = this.source;
+
+    // Finds the characters the edit left unchanged at the start and end of the source code
+    int limit = Math.min(old.length(), source.length());
+    int prefix = 0;
+
+    while (prefix < limit && old.charAt(prefix) == source.charAt(prefix)) {
+      prefix++;
+    }
+
+    if (prefix == old.length() && prefix == source.length()) {
+      return program;
+    }
+
+    int suffix = 0;
+
+    while (suffix < limit - prefix
+        && old.charAt(old.length() - 1 - suffix) == source.charAt(source.length() - 1 - suffix)) {
+      suffix++;
+    }
+
+    // Finds the lines of the old source code which the edit touched
+    int first = line(prefix);
+    int last = line(old.length() - suffix);
+    int shift = source.length() - old.length();
+    int end = (last + 1 < lines.size() ? lineStarts[last + 1] - 1 : old.length()) + shift;
+
+    this.source = source;
+    int lineShift = splice(first, last, end, shift);
+
+    return program = generate(first, last + 1 + lineShift, lineShift);
+  }
+
+  /**
+   * @param index Index of a character in the old {@link IncrementalCompiler#source}.
+   * @return The line of the character at {@code index}.
+   */
+  private int line(int index) {
+    int line = Arrays.binarySearch(lineStarts, 0, lines.size(), index);
+    return line >= 0 ? line : -line - 2;
+  }
+
+  /**
+   * Replaces the lines {@code first} through {@code last} of the old {@link
+   * IncrementalCompiler#source} with the lines of this {@link IncrementalCompiler#source} which
+   * start at the same index and end at {@code end}, scanning only those lines and renumbering the
+   * lines after them.
+   *
+   * @param first The first line touched by the edit.
+   * @param last The last line of the old source code touched by the edit.
+   * @param end The index one past the last character of the new lines.
+   * @param shift The change in the length of the source code.
+   * @return The change in the number of lines.
+   */
+  private int splice(int first, int last, int end, int shift) {
+    int start = lineStarts[first];
+
+    // Scans the new lines
+    ArrayList<ArrayList<Token>> scanned = new ArrayList<>();
+    ArrayList<Integer> starts = new ArrayList<>();
+    starts.add(start);
+    scanned.add(new ArrayList<>());
+
+    for (int i = source.indexOf('\n', start); i >= 0 && i < end; i = source.indexOf('\n', i + 1)) {
+      starts.add(i + 1);
+      scanned.add(new ArrayList<>());
+    }
+
+    Lexer lexer = new Lexer(source, start, end, first);
+
+    for (Token token = lexer.poll(); token != null; token = lexer.poll()) {
+      scanned.get(token.line() - first).add(token);
+    }
+
+    int newCount = scanned.size();
+    int lineShift = newCount - (last - first + 1);
+
+    // Renumbers the lines after the edit
+    int[] newLineStarts = new int[lines.size() + lineShift];
+    System.arraycopy(lineStarts, 0, newLineStarts, 0, first);
+
+    for (int i = 0; i < newCount; i++) {
+      newLineStarts[first + i] = starts.get(i);
+    }
+
+    for (int i = last + 1; i < lines.size(); i++) {
+      newLineStarts[i + lineShift] = lineStarts[i] + shift;
+      Token[] tokens = lines.get(i);
+
+      // Moves every token of the line at once through the line they share
+      if (lineShift != 0 && tokens.length > 0) {
+        tokens[0].shift(lineShift);
+      }
+    }
+
+    lineStarts = newLineStarts;
+
+    ArrayList<Token[]> replacement = new ArrayList<>();
+
+    for (ArrayList<Token> tokens : scanned) {
+      replacement.add(tokens.isEmpty() ? EMPTY : tokens.toArray(EMPTY));
+    }
+
+    lines.subList(first, last + 1).clear();
+    lines.addAll(first, replacement);
+
+    checkpoints.subList(first, last + 1).clear();
+    checkpoints.addAll(first, Collections.nCopies(newCount, null));
+
+    return lineShift;
+  }
+
+  /**
+   * Resumes parsing from the last statement which started before line {@code first}, stops once it
+   * reaches a statement after the edit which would be parsed the same as before, and resolves the
+   * label arguments affected.
+   *
+   * @param first The first line touched by the edit.
+   * @param after The first line after the edit.
+   * @param lineShift The change in the number of lines.
+   * @return {@link Program} which is the result of compiling this {@link
+   *     IncrementalCompiler#source}.
+   */
+  private Program generate(int first, int after, int lineShift) {
+    // Finds the last line before the edit which starts a statement
+    int line = first - 1;
+
+    while (line >= 0 && checkpoints.get(line) == null) {
+      line--;
+    }
+
+    Compiler.Checkpoint checkpoint = line < 0 ? initial : checkpoints.get(line);
+    line = Math.max(line, 0);
+
+    // Discards everything parsed from that statement on, keeping it to resume later
+    Compiler.Suffix suffix = compiler.suffix(checkpoint);
+    compiler.restore(checkpoint);
+
+    // Parses the source code again until it is parsed the same as before
+    Cursor cursor = new Cursor(lines, line);
+    compiler.tokens(cursor);
+    Compiler.Checkpoint resumed = null;
+
+    while (!cursor.isEmpty()) {
+      if (cursor.atLineStart()) {
+        int current = cursor.line();
+        Compiler.Checkpoint old = current >= after ? checkpoints.get(current) : null;
+        Compiler.Checkpoint now = compiler.checkpoint();
+        clear(line, current);
+        line = current + 1;
+
+        // Errors after the edit mention the old line numbers, so they are logged again
+        if (old != null
+            && (lineShift == 0 || old.errors() == suffix.errors())
+            && compiler.resumable(now, suffix, old)) {
+          compiler.resume(suffix, old);
+          resumed = old;
+          break;
+        }
+
+        checkpoints.set(current, now);
+      }
+
+      if (!compiler.statement()) {
+        break;
+      }
+    }
+
+    if (resumed == null) {
+      clear(line, checkpoints.size());
+    }
+
+    // Finds the labels and instructions which were parsed again
+    ArrayList<String> definitions = compiler.definitions();
+    ArrayList<Instruction> instructions = compiler.instructions();
+    int from = checkpoint.instructions();
+    int to = resumed == null ? instructions.size() : resumed.instructions();
+    int defined = resumed == null ? definitions.size() : resumed.definitions();
+    Set<String> changed = new HashSet<>(suffix.definitions(resumed));
+    changed.addAll(definitions.subList(checkpoint.definitions(), defined));
+
+    // Resolves the label arguments which were parsed again
+    if (resumed == null) {
+      resolved.subList(from, resolved.size()).clear();
+    }
+
+    for (int i = from; i < to; i++) {
+      Instruction instruction = compiler.resolve(i);
+
+      if (resumed == null) {
+        resolved.add(instruction);
+      } else {
+        resolved.set(i, instruction);
+      }
+
+      reference(i);
+    }
+
+    // Resolves the other label arguments whose labels may have changed
+    for (String label : changed) {
+      ArrayList<Integer> indices = references.get(label);
+
+      if (indices == null) {
+        continue;
+      }
+
+      // Drops indices which no longer hold an instruction with the label as its argument
+      indices.removeIf(i -> i >= instructions.size() || !label.equals(compiler.argument(i)));
+
+      for (int i : indices) {
+        if (i < from || i >= to) {
+          resolved.set(i, compiler.resolve(i));
+        }
+      }
+    }
+
+    return program(instructions);
+  }
+
+  /**
+   * Forgets the statements starting on the lines from {@code from} up to {@code to}.
+   *
+   * @param from The first line to clear.
+   * @param to The line after the last line to clear.
+   */
+  private void clear(int from, int to) {
+    for (int i = from; i < to; i++) {
+      checkpoints.set(i, null);
+    }
+  }
+
+  /**
+   * Records in {@link IncrementalCompiler#references} that the {@link Instruction} at {@code i} was
+   * resolved with its label argument.
+   *
+   * @param i The index of an {@link Instruction} in {@link IncrementalCompiler#resolved}.
+   */
+  private void reference(int i) {
+    String label = compiler.argument(i);
+
+    if (label == null) {
+      return;
+    }
+
+    ArrayList<Integer> indices = references.computeIfAbsent(label, key -> new ArrayList<>());
+
+    // Keeps the indices sorted and distinct, since the instructions after i may be kept
+    int index = Collections.binarySearch(indices, i);
+
+    if (index < 0) {
+      indices.add(-index - 1, i);
+    }
+  }
+
+  /**
+   * @param instructions The {@link Instruction} instances parsed by this {@link
+   *     IncrementalCompiler#compiler}, whose label arguments are not resolved.
+   * @return {@link Program} of this {@link IncrementalCompiler#resolved} instructions, with the
+   *     errors of this {@link IncrementalCompiler#compiler} followed by an error for each label
+   *     argument which was never defined.
+   */
+  private Program program(ArrayList<Instruction> instructions) {
+    ArrayList<Instruction> program = new ArrayList<>(instructions.size());
+    ArrayList<String> errors = new ArrayList<>(compiler.errors());
+
+    for (int i = 0; i < instructions.size(); i++) {
+      Instruction instruction = resolved.get(i);
+
+      if (instruction == null) {
+        program.add(instructions.get(i));
+        errors.add(compiler.unrecognized(i));
+      } else {
+        program.add(instruction);
+      }
+    }
+
+    return new Program(compiler.start(), program, compiler.labels(), errors);
+  }
+
+  /** {@link Compiler.Tokens} over the {@link Token} instances of each line. */
+  private static class Cursor implements Compiler.Tokens {
+    /** The {@link Token} instances of each line. */
+    private final ArrayList<Token[]> lines;
+
+    /** The line of the next {@link Token}. */
+    private int line;
+
+    /** The index of the next {@link Token} in its line. */
+    private int index;
+
+    /**
+     * @param lines The {@link Token} instances of each line.
+     * @param line The line of the first {@link Token} to stream.
+     */
+    private Cursor(ArrayList<Token[]> lines, int line) {
+      this.lines = lines;
+      this.line = line;
+      index = 0;
+    }
+
+    /**
+     * @return {@link Cursor#line}.
+     */
+    private int line() {
+      return line;
+    }
+
+    /**
+     * @return boolean representing if the next {@link Token} is the first of its line.
+     */
+    private boolean atLineStart() {
+      return index == 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return peek() == null;
+    }
+
+    @Override
+    public Token peek() {
+      // Skips lines without any tokens left
+      while (line < lines.size() && index == lines.get(line).length) {
+        line++;
+        index = 0;
+      }
+
+      return line < lines.size() ? lines.get(line)[index] : null;
+    }
+
+    @Override
+    public Token poll() {
+      Token token = peek();
+
+      if (token != null) {
+        index++;
+      }
+
+      return token;
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.tomeraberbach.mano.assembly;
+
+/**
+ * Class representing a scanner which lazily splits assembly code for Mano's computer into {@link
+ * Token} instances as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>Comments, which run from a {@code /} to the end of the line, are skipped, and lexemes are
+ * separated by whitespace and commas, each comma being a lexeme of its own. A {@link Token} is only
+ * scanned when it is requested, so the source code is read once without being split into lines or
+ * lexemes up front.
+ */
+public class Lexer implements Compiler.Tokens {
+  /** The lexeme of the {@link Token} separating a label from its instruction. */
+  private static final String COMMA = ",";
+
+  /** The assembly source code to scan. */
+  private final String source;
+
+  /** The index one past the last character of this {@link Lexer#source} to scan. */
+  private final int end;
+
+  /** The index of the next character of this {@link Lexer#source} to scan. */
+  private int index;
+
+  /** The line of the next character of this {@link Lexer#source} to scan. */
+  private int line;
+
+  /**
+   * {@link Token.Line} shared by the {@link Token} instances of the current line, or {@code null}
+   * if none were scanned from it yet.
+   */
+  private Token.Line current;
+
+  /** The index of the first character of the current line of this {@link Lexer#source}. */
+  private int lineStart;
+
+  /** The position of the next {@link Token} in the current line. */
+  private int position;
+
+  /** The next {@link Token}, or {@code null} if it has not been scanned yet. */
+  private Token next;
+
+  /**
+   * @param source The assembly source code to scan.
+   */
+  public Lexer(String source) {
+    this(source, 0, source.length(), 0);
+  }
+
+  /**
+   * {@code start} must be the index of the first character of a line of {@code source}.
+   *
+   * @param source The assembly source code to scan part of.
+   * @param start The index of the first character of {@code source} to scan.
+   * @param end The index one past the last character of {@code source} to scan.
+   * @param line The line of the character at {@code start}.
+   */
+  Lexer(String source, int start, int end, int line) {
+    this.source = source;
+    this.end = end;
+    index = start;
+    this.line = line;
+    current = null;
+    lineStart = start;
+    position = startPosition();
+    next = null;
+  }
+
+  /**
+   * @return boolean representing if there are no {@link Token} instances left in this {@link
+   *     Lexer#source}.
+   */
+  @Override
+  public boolean isEmpty() {
+    return peek() == null;
+  }
+
+  /**
+   * @return The next {@link Token} without consuming it, or {@code null} if there are none left.
+   */
+  @Override
+  public Token peek() {
+    if (next == null) {
+      next = scan();
+    }
+
+    return next;
+  }
+
+  /**
+   * @return The next {@link Token}, or {@code null} if there are none left.
+   */
+  @Override
+  public Token poll() {
+    Token token = peek();
+    next = null;
+    return token;
+  }
+
+  /**
+   * @return The next {@link Token} scanned from this {@link Lexer#source}, or {@code null} if the
+   *     end of it was reached.
+   */
+  private Token scan() {
+    while (index < end) {
+      char c = source.charAt(index);
+
+      if (c == '\n') {
+        index++;
+        line++;
+        current = null;
+        lineStart = index;
+        position = startPosition();
+      } else if (c == '/') {
+        // Skips the comment up to the end of the line
+        int newline = source.indexOf('\n', index);
+        index = newline < 0 ? end : Math.min(newline, end);
+      } else if (isWhitespace(c)) {
+        index++;
+      } else if (c == ',') {
+        index++;
+        return new Token(current(), position++, index - 1 - lineStart, COMMA);
+      } else {
+        int start = index;
+
+        do {
+          index++;
+        } while (index < end && isLexeme(source.charAt(index)));
+
+        return new Token(current(), position++, start - lineStart, source.substring(start, index));
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * @return {@link Lexer#current}, which is created for the first {@link Token} of its line.
+   */
+  private Token.Line current() {
+    if (current == null) {
+      current = new Token.Line(line);
+    }
+
+    return current;
+  }
+
+  /**
+   * Lines which start with whitespace or a comma have their first {@link Token} at position 1
+   * rather than 0, as if an empty lexeme preceded it.
+   *
+   * @return The position of the first {@link Token} of the line starting at {@link
+   *     Lexer#lineStart}.
+   */
+  private int startPosition() {
+    if (lineStart < end) {
+      char c = source.charAt(lineStart);
+
+      if (c != '\n' && (isWhitespace(c) || c == ',')) {
+        return 1;
+      }
+    }
+
+    return 0;
+  }
+
+  /**
+   * @param c Character to check.
+   * @return boolean representing if {@code c} is part of a lexeme other than a comma.
+   */
+  private static boolean isLexeme(char c) {
+    return c != ',' && c != '/' && !isWhitespace(c);
+  }
+
+  /**
+   * @param c Character to check.
+   * @return boolean representing if {@code c} separates lexemes.
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+}
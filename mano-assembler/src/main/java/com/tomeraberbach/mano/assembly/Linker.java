@@ -0,0 +1,201 @@
+package com.tomeraberbach.mano.assembly;
+
+import com.tomeraberbach.mano.Utilities;
+import com.tomeraberbach.mano.simulation.Computer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Class representing a linker which combines the {@link Program} instances compiled from several
+ * files of assembly code for Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ */
+public class Linker {
+  /** The number of addresses {@link Instruction} instances can be placed at. */
+  private static final int ADDRESSES = Computer.maxValue(Computer.ADDRESS_SIZE) + 1;
+
+  /** The names of the files which this {@link Linker#programs} were compiled from. */
+  private final String[] files;
+
+  /** The {@link Program} instances to link. */
+  private final Program[] programs;
+
+  /**
+   * @param files The names of the files which {@code programs} were compiled from.
+   * @param programs The {@link Program} instances to link, which are not modified.
+   */
+  public Linker(String[] files, Program[] programs) {
+    if (files.length != programs.length) {
+      throw new IllegalArgumentException(
+          "Expected one file name per program, but got "
+              + files.length
+              + " file names and "
+              + programs.length
+              + " programs.");
+    }
+
+    this.files = files;
+    this.programs = programs;
+  }
+
+  /**
+   * Assembles each of {@code sources} with {@link Compiler#assemble(String)} in parallel on {@code
+   * executor}. Assembling reads and writes the {@link AssemblyCache} if there is one, so this
+   * blocking work is kept off the common fork-join pool, and no thread waits for another.
+   *
+   * @param sources The assembly source code of each file.
+   * @param executor {@link Executor} which assembles each of {@code sources}.
+   * @return {@link CompletableFuture} of the array of the {@link ObjectModule} assembled from each
+   *     of {@code sources}.
+   */
+  public static CompletableFuture<ObjectModule[]> assemble(String[] sources, Executor executor) {
+    ObjectModule[] modules = new ObjectModule[sources.length];
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[sources.length];
+
+    for (int i = 0; i < sources.length; i++) {
+      int index = i;
+      futures[i] =
+          CompletableFuture.runAsync(
+              () -> modules[index] = Compiler.assemble(sources[index]), executor);
+    }
+
+    // Completing every future happens before the array is read
+    return CompletableFuture.allOf(futures).thenApply(done -> modules);
+  }
+
+  /**
+   * Resolves the imported symbols of each of {@code modules} to the {@link Label} exported under
+   * the same name by one of the others. A symbol exported by more than one of {@code modules} can
+   * only be used by the module which defines it.
+   *
+   * @param files The names of the files which {@code modules} were assembled from.
+   * @param modules The {@link ObjectModule} instances to link, which are not modified.
+   * @return {@link Linker} of the {@link Program} relocated from each of {@code modules}.
+   */
+  public static Linker resolve(String[] files, ObjectModule[] modules) {
+    if (files.length != modules.length) {
+      throw new IllegalArgumentException(
+          "Expected one file name per module, but got "
+              + files.length
+              + " file names and "
+              + modules.length
+              + " modules.");
+    }
+
+    // Builds the symbol table of every module
+    Map<String, Label> symbols = new HashMap<>();
+    Map<String, String> definers = new HashMap<>();
+    Map<String, String> ambiguous = new HashMap<>();
+
+    for (int i = 0; i < modules.length; i++) {
+      for (Label label : modules[i].exports()) {
+        String symbol = label.token().lexeme();
+        String definer = definers.get(symbol);
+
+        if (definer == null) {
+          symbols.put(symbol, label);
+          definers.put(symbol, files[i]);
+        } else {
+          symbols.put(symbol, null);
+          definers.put(symbol, definer + ", " + files[i]);
+          ambiguous.put(symbol, definers.get(symbol));
+        }
+      }
+    }
+
+    Program[] programs = new Program[modules.length];
+
+    for (int i = 0; i < modules.length; i++) {
+      programs[i] = modules[i].relocate(symbols, ambiguous);
+    }
+
+    return new Linker(files, programs);
+  }
+
+  /**
+   * @return {@link Linker#programs}.
+   */
+  public Program[] programs() {
+    return programs;
+  }
+
+  /**
+   * @return {@link Program} which contains the {@link Instruction}, {@link Label}, and error
+   *     instances of every {@link Program} in {@link Linker#programs} and which starts where the
+   *     first of them starts.
+   */
+  public Program link() {
+    return Program.union(programs.length == 0 ? 0 : programs[0].start(), programs);
+  }
+
+  /**
+   * Marks the address of each {@link Instruction} in a 4096 bit {@link BitSet} to find the
+   * addresses which more than one {@link Instruction} is placed at.
+   *
+   * @return {@link ArrayList} of an error for each address which more than one {@link Instruction}
+   *     of {@link Linker#programs} is placed at, naming the files which placed them there.
+   */
+  public ArrayList<String> conflicts() {
+    BitSet used = new BitSet(ADDRESSES);
+    BitSet conflicting = new BitSet(ADDRESSES);
+
+    // The index of the first program which placed an instruction at each address
+    int[] owners = new int[ADDRESSES];
+
+    for (int i = 0; i < programs.length; i++) {
+      for (Instruction instruction : programs[i].instructions()) {
+        int address = instruction.address();
+
+        if (used.get(address)) {
+          conflicting.set(address);
+        } else {
+          used.set(address);
+          owners[address] = i;
+        }
+      }
+    }
+
+    // Collects the files which placed an instruction at each conflicting address
+    Map<Integer, Set<String>> names = new HashMap<>();
+
+    for (int i = 0; i < programs.length; i++) {
+      for (Instruction instruction : programs[i].instructions()) {
+        int address = instruction.address();
+
+        if (conflicting.get(address)) {
+          names
+              .computeIfAbsent(address, key -> new LinkedHashSet<>(List.of(files[owners[address]])))
+              .add(files[i]);
+        }
+      }
+    }
+
+    ArrayList<String> conflicts = new ArrayList<>();
+
+    for (int address = conflicting.nextSetBit(0);
+        address >= 0;
+        address = conflicting.nextSetBit(address + 1)) {
+      Set<String> files = names.get(address);
+
+      conflicts.add(
+          "Conflicting memory address, "
+              + Utilities.hex(address, 3)
+              + ", "
+              + (files.size() == 1 ? "within " : "between ")
+              + String.join(", ", files)
+              + ".");
+    }
+
+    return conflicts;
+  }
+}
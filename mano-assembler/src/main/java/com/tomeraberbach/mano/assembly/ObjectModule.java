@@ -0,0 +1,323 @@
+package com.tomeraberbach.mano.assembly;
+
+import com.tomeraberbach.mano.simulation.RAM;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Class representing a relocatable object module assembled from one file of assembly code for
+ * Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>Label arguments defined in the file are already resolved. Each label argument which is not has
+ * a relocation entry naming one of the imported symbols, which {@link Linker#resolve(String[],
+ * ObjectModule[])} fills in with the address of the {@link Label} another module exports under that
+ * name. {@link ObjectModule#write(OutputStream)} stores a module in a compact binary format so that
+ * it can be linked again without being reassembled.
+ */
+public class ObjectModule {
+  /** The first four bytes of every stored {@link ObjectModule}, which spell "MANO". */
+  private static final int MAGIC = 0x4D414E4F;
+
+  /**
+   * The version of the format which {@link ObjectModule#write(OutputStream)} uses, which also
+   * versions the entries of {@link AssemblyCache}.
+   */
+  static final int VERSION = 1;
+
+  /** The address in {@link RAM} where this {@link ObjectModule} starts. */
+  private final int start;
+
+  /**
+   * The {@link Instruction} instances of this {@link ObjectModule}, whose imported label arguments
+   * are not filled in.
+   */
+  private final ArrayList<Instruction> instructions;
+
+  /** The {@link Label} instances defined in this {@link ObjectModule}. */
+  private final ArrayList<Label> exports;
+
+  /** The names of the labels this {@link ObjectModule} uses without defining them. */
+  private final ArrayList<String> imports;
+
+  /** The index in {@link ObjectModule#instructions} of each relocation entry. */
+  private final ArrayList<Integer> relocations;
+
+  /** The index in {@link ObjectModule#imports} of the symbol of each relocation entry. */
+  private final ArrayList<Integer> symbols;
+
+  /** The errors encountered when assembling the source code of this {@link ObjectModule}. */
+  private final ArrayList<String> errors;
+
+  /**
+   * @param start The address in {@link RAM} where this {@link ObjectModule} starts.
+   * @param instructions The {@link Instruction} instances of this {@link ObjectModule}, whose
+   *     imported label arguments are not filled in.
+   * @param exports The {@link Label} instances defined in this {@link ObjectModule}.
+   * @param imports The names of the labels this {@link ObjectModule} uses without defining them.
+   * @param relocations The index in {@code instructions} of each relocation entry.
+   * @param symbols The index in {@code imports} of the symbol of each relocation entry.
+   * @param errors The errors encountered when assembling the source code of this {@link
+   *     ObjectModule}.
+   */
+  ObjectModule(
+      int start,
+      ArrayList<Instruction> instructions,
+      ArrayList<Label> exports,
+      ArrayList<String> imports,
+      ArrayList<Integer> relocations,
+      ArrayList<Integer> symbols,
+      ArrayList<String> errors) {
+    this.start = start;
+    this.instructions = instructions;
+    this.exports = exports;
+    this.imports = imports;
+    this.relocations = relocations;
+    this.symbols = symbols;
+    this.errors = errors;
+  }
+
+  /**
+   * @param program {@link Program} whose label arguments are all resolved.
+   * @return {@link ObjectModule} without any imports which {@link ObjectModule#program()} turns
+   *     back into {@code program}.
+   */
+  static ObjectModule of(Program program) {
+    return new ObjectModule(
+        program.start(),
+        program.instructions(),
+        program.labels(),
+        new ArrayList<>(),
+        new ArrayList<>(),
+        new ArrayList<>(),
+        program.errors());
+  }
+
+  /**
+   * @return {@link ObjectModule#start}.
+   */
+  public int start() {
+    return start;
+  }
+
+  /**
+   * @return {@link ObjectModule#exports}.
+   */
+  public ArrayList<Label> exports() {
+    return exports;
+  }
+
+  /**
+   * @return {@link ObjectModule#imports}.
+   */
+  public ArrayList<String> imports() {
+    return imports;
+  }
+
+  /**
+   * @return {@link ObjectModule#errors}.
+   */
+  public ArrayList<String> errors() {
+    return errors;
+  }
+
+  /**
+   * @param symbols {@link Map} which maps the name of each symbol exported by any linked {@link
+   *     ObjectModule} to its {@link Label}, or to {@code null} if more than one module exports it.
+   * @param files {@link Map} which maps the name of each symbol exported by more than one linked
+   *     {@link ObjectModule} to the names of the files which export it.
+   * @return {@link Program} of this {@link ObjectModule} with the argument of each relocation entry
+   *     filled in from {@code symbols}, and with an error for each which could not be.
+   */
+  Program relocate(Map<String, Label> symbols, Map<String, String> files) {
+    ArrayList<Instruction> instructions = new ArrayList<>(this.instructions);
+    ArrayList<String> errors = new ArrayList<>(this.errors);
+
+    for (int i = 0; i < relocations.size(); i++) {
+      int index = relocations.get(i);
+      String symbol = imports.get(this.symbols.get(i));
+      Label label = symbols.get(symbol);
+
+      if (label != null) {
+        instructions.set(index, instructions.get(index).argument(label));
+      } else if (files.containsKey(symbol)) {
+        errors.add(
+            "Ambiguous label name, "
+                + instructions.get(index).tokens()[1]
+                + ", which is defined in "
+                + files.get(symbol)
+                + ".");
+      } else {
+        errors.add(Compiler.unrecognized(instructions.get(index)));
+      }
+    }
+
+    return new Program(start, instructions, new ArrayList<>(exports), errors);
+  }
+
+  /**
+   * @return {@link Program} of this {@link ObjectModule} with an error for each relocation entry,
+   *     since there are no other modules to fill them in from.
+   */
+  Program program() {
+    return relocate(Collections.emptyMap(), Collections.emptyMap());
+  }
+
+  /**
+   * Writes this {@link ObjectModule} to {@code out} in a compact binary format which {@link
+   * ObjectModule#read(InputStream)} reads.
+   *
+   * @param out {@link OutputStream} to write this {@link ObjectModule} to.
+   * @throws IOException Thrown if {@code out} could not be written to.
+   */
+  public void write(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    data.writeShort(start);
+
+    data.writeInt(instructions.size());
+    for (Instruction instruction : instructions) {
+      data.writeShort(instruction.address());
+      data.writeShort(instruction.code());
+      data.writeByte(instruction.tokens().length);
+
+      for (Token token : instruction.tokens()) {
+        write(data, token);
+      }
+    }
+
+    data.writeInt(exports.size());
+    for (Label label : exports) {
+      data.writeShort(label.address());
+      write(data, label.token());
+    }
+
+    data.writeInt(imports.size());
+    for (String symbol : imports) {
+      data.writeUTF(symbol);
+    }
+
+    data.writeInt(relocations.size());
+    for (int i = 0; i < relocations.size(); i++) {
+      data.writeInt(relocations.get(i));
+      data.writeInt(symbols.get(i));
+    }
+
+    data.writeInt(errors.size());
+    for (String error : errors) {
+      data.writeUTF(error);
+    }
+
+    data.flush();
+  }
+
+  /**
+   * @param in {@link InputStream} to read an {@link ObjectModule} from.
+   * @return {@link ObjectModule} which {@link ObjectModule#write(OutputStream)} wrote to {@code
+   *     in}.
+   * @throws IOException Thrown if {@code in} could not be read from or does not contain an {@link
+   *     ObjectModule}.
+   */
+  public static ObjectModule read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Not a Mano object module.");
+    }
+
+    int version = data.readUnsignedByte();
+
+    if (version != VERSION) {
+      throw new IOException("Unsupported Mano object module version, " + version + ".");
+    }
+
+    int start = data.readUnsignedShort();
+
+    int count = data.readInt();
+    ArrayList<Instruction> instructions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int address = data.readUnsignedShort();
+      int code = data.readUnsignedShort();
+      Token[] tokens = new Token[data.readUnsignedByte()];
+
+      for (int j = 0; j < tokens.length; j++) {
+        tokens[j] = readToken(data);
+      }
+
+      instructions.add(new Instruction(address, code, tokens));
+    }
+
+    count = data.readInt();
+    ArrayList<Label> exports = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int address = data.readUnsignedShort();
+      exports.add(new Label(readToken(data), address));
+    }
+
+    count = data.readInt();
+    ArrayList<String> imports = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      imports.add(data.readUTF());
+    }
+
+    count = data.readInt();
+    ArrayList<Integer> relocations = new ArrayList<>(count);
+    ArrayList<Integer> symbols = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int relocation = data.readInt();
+      int symbol = data.readInt();
+
+      if (relocation < 0
+          || relocation >= instructions.size()
+          || symbol < 0
+          || symbol >= imports.size()) {
+        throw new IOException("Invalid relocation entry in Mano object module.");
+      }
+
+      relocations.add(relocation);
+      symbols.add(symbol);
+    }
+
+    count = data.readInt();
+    ArrayList<String> errors = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      errors.add(data.readUTF());
+    }
+
+    return new ObjectModule(start, instructions, exports, imports, relocations, symbols, errors);
+  }
+
+  /**
+   * @param data {@link DataOutputStream} to write {@code token} to.
+   * @param token {@link Token} to write.
+   * @throws IOException Thrown if {@code data} could not be written to.
+   */
+  private static void write(DataOutputStream data, Token token) throws IOException {
+    data.writeInt(token.line());
+    data.writeShort(token.position());
+    data.writeShort(token.column());
+    data.writeUTF(token.lexeme());
+  }
+
+  /**
+   * @param data {@link DataInputStream} to read a {@link Token} from.
+   * @return {@link Token} which {@link ObjectModule#write(DataOutputStream, Token)} wrote to {@code
+   *     data}.
+   * @throws IOException Thrown if {@code data} could not be read from.
+   */
+  private static Token readToken(DataInputStream data) throws IOException {
+    return new Token(
+        data.readInt(), data.readUnsignedShort(), data.readUnsignedShort(), data.readUTF());
+  }
+}
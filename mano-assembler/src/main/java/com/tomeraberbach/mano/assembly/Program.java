@@ -1,9 +1,11 @@
 package com.tomeraberbach.mano.assembly;
 
-import com.tomeraberbach.mano.Utilities;
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.Image;
 import com.tomeraberbach.mano.simulation.RAM;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.stream.Collectors;
 
 /**
@@ -47,19 +49,21 @@ public class Program {
    * @param start The address in {@link RAM} where the unioned {@link Program} should start.
    * @param programs Array of {@link Program} instances to combine.
    * @return {@link Program} which contains the instances of every {@link Program} in {@code
-   *     programs} and which starts at address {@code start}.
+   *     programs}, none of which are modified, and which starts at address {@code start}.
    */
   public static Program union(int start, Program... programs) {
-    return new Program(
-        start,
-        Utilities.union(
-            Arrays.stream(programs)
-                .map(program -> program.instructions)
-                .collect(Collectors.toList())),
-        Utilities.union(
-            Arrays.stream(programs).map(program -> program.labels).collect(Collectors.toList())),
-        Utilities.union(
-            Arrays.stream(programs).map(program -> program.errors).collect(Collectors.toList())));
+    ArrayList<Instruction> instructions = new ArrayList<>();
+    ArrayList<Label> labels = new ArrayList<>();
+    ArrayList<String> errors = new ArrayList<>();
+
+    // Copies into new lists so that none of the programs are modified
+    for (Program program : programs) {
+      instructions.addAll(program.instructions);
+      labels.addAll(program.labels);
+      errors.addAll(program.errors);
+    }
+
+    return new Program(start, instructions, labels, errors);
   }
 
   /**
@@ -90,11 +94,42 @@ public class Program {
     return errors;
   }
 
+  /**
+   * @return {@link Image} containing the code of each {@link Instruction} of this {@link Program},
+   *     with its source code, and each {@link Label} of this {@link Program}, starting at {@link
+   *     Program#start}. Later {@link Instruction} instances at identical addresses take precedence.
+   */
+  public Image image() {
+    Image image = new Image(start);
+
+    for (Instruction instruction : instructions) {
+      image.write(
+          instruction.address(),
+          instruction.code(),
+          Arrays.stream(instruction.tokens()).map(Token::lexeme).collect(Collectors.joining(" ")));
+    }
+
+    for (Label label : labels) {
+      image.label(label.address(), label.token().lexeme());
+    }
+
+    return image;
+  }
+
   /**
    * @return boolean representing if there are {@link Instruction} instances at identical addresses.
    */
   public boolean conflicts() {
-    return instructions.stream().map(Instruction::address).distinct().count()
-        != instructions.size();
+    BitSet addresses = new BitSet(Computer.maxValue(Computer.ADDRESS_SIZE) + 1);
+
+    for (Instruction instruction : instructions) {
+      if (addresses.get(instruction.address())) {
+        return true;
+      }
+
+      addresses.set(instruction.address());
+    }
+
+    return false;
   }
 }
@@ -0,0 +1,111 @@
+package com.tomeraberbach.mano.assembly;
+
+/**
+ * Class representing the smallest semantic element in the assembly code of Mano's computer as
+ * detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>The {@link Token} instances scanned from one line share its {@link Line}, so they can all be
+ * moved to another line number at once when lines are inserted or removed above them.
+ */
+public class Token {
+  /** {@link Line} holding the line number from which the {@link Token} was parsed. */
+  private Line line;
+
+  /** Token number in the line from which the {@link Token} was parsed. */
+  private int position;
+
+  /** Index of the first character of the {@link Token} in the line from which it was parsed. */
+  private int column;
+
+  /** {@link String} which represented the {@link Token} in source code. */
+  private String lexeme;
+
+  /**
+   * @param line Line number from which the {@link Token} was parsed.
+   * @param position Token number in the line from which the {@link Token} was parsed.
+   * @param column Index of the first character of the {@link Token} in the line from which it was
+   *     parsed.
+   * @param lexeme {@link String} which represented the {@link Token} in source code.
+   */
+  Token(int line, int position, int column, String lexeme) {
+    this(new Line(line), position, column, lexeme);
+  }
+
+  /**
+   * @param line {@link Line} holding the line number from which the {@link Token} was parsed,
+   *     shared with the other {@link Token} instances of the line.
+   * @param position Token number in the line from which the {@link Token} was parsed.
+   * @param column Index of the first character of the {@link Token} in the line from which it was
+   *     parsed.
+   * @param lexeme {@link String} which represented the {@link Token} in source code.
+   */
+  Token(Line line, int position, int column, String lexeme) {
+    this.line = line;
+    this.position = position;
+    this.column = column;
+    this.lexeme = lexeme;
+  }
+
+  /**
+   * @return The line number of {@link Token#line}.
+   */
+  public int line() {
+    return line.number;
+  }
+
+  /**
+   * Moves this {@link Token} and every other {@link Token} sharing its {@link Token#line} by {@code
+   * lines} lines.
+   *
+   * @param lines The number of lines to move by, which is negative to move up.
+   */
+  void shift(int lines) {
+    line.number += lines;
+  }
+
+  /**
+   * @return {@link Token#position}.
+   */
+  public int position() {
+    return position;
+  }
+
+  /**
+   * @return {@link Token#column}.
+   */
+  public int column() {
+    return column;
+  }
+
+  /**
+   * @return {@link Token#lexeme}.
+   */
+  public String lexeme() {
+    return lexeme;
+  }
+
+  /**
+   * @return {@link String} describing the {@link Token} for {@link Compiler} error messages.
+   */
+  @Override
+  public String toString() {
+    return "'" + lexeme + "' at line " + line() + " token position " + position;
+  }
+
+  /** Class representing the line number of the {@link Token} instances scanned from one line. */
+  static class Line {
+    /** The line number. */
+    private int number;
+
+    /**
+     * @param number The line number.
+     */
+    Line(int number) {
+      this.number = number;
+    }
+  }
+}
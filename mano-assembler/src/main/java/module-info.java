@@ -0,0 +1,6 @@
+/** Assembler which compiles source code into programs for Mano's basic computer. */
+module com.tomeraberbach.mano.assembler {
+  requires transitive com.tomeraberbach.mano.core;
+
+  exports com.tomeraberbach.mano.assembly;
+}
@@ -0,0 +1,113 @@
+package com.tomeraberbach.mano.assembly;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests of {@link AssemblyCache}. */
+public class AssemblyCacheTest {
+  /** Source code which uses a label it does not define, so its module has an import. */
+  private static final String SOURCE = "LDA X\nSTA Y\nHLT\nY, DEC 0\n";
+
+  /**
+   * {@link Compiler#assemble(String)} stores the {@link ObjectModule} of source code it assembles
+   * in the cache, and the cached module links the same as a freshly assembled one.
+   *
+   * @param directory Directory of the {@link AssemblyCache}.
+   * @throws IOException Thrown if {@code directory} could not be created.
+   */
+  @Test
+  public void assembleUsesCache(@TempDir Path directory) throws IOException {
+    AssemblyCache cache = new AssemblyCache(directory, 1 << 20);
+    ObjectModule assembled = Compiler.assemble(SOURCE);
+
+    Compiler.cache(cache);
+
+    try {
+      Compiler.assemble(SOURCE);
+      ObjectModule cached = cache.getModule(SOURCE);
+
+      assertNotNull(cached);
+      assertEquals(assembled.imports(), cached.imports());
+      assertEquals(link(assembled), link(cached));
+      assertEquals(link(assembled), link(Compiler.assemble(SOURCE)));
+    } finally {
+      Compiler.cache(null);
+    }
+  }
+
+  /**
+   * Entries never take up more than the limit, and a cache created over existing entries counts
+   * them and evicts down to its own limit.
+   *
+   * @param directory Directory of the {@link AssemblyCache}.
+   * @throws IOException Thrown if {@code directory} could not be created or listed.
+   */
+  @Test
+  public void evictsDownToLimit(@TempDir Path directory) throws IOException {
+    AssemblyCache cache = new AssemblyCache(directory, 1 << 20);
+
+    for (int i = 0; i < 16; i++) {
+      String source = "ORG " + i + "\nHEX " + i + "\n";
+      cache.putModule(source, Compiler.assemble(source));
+    }
+
+    long size = size(directory);
+    assertTrue(size > 0);
+
+    cache = new AssemblyCache(directory, size / 2);
+    assertTrue(size(directory) <= size / 2);
+
+    for (int i = 16; i < 64; i++) {
+      String source = "ORG " + i + "\nHEX " + i + "\n";
+      cache.putModule(source, Compiler.assemble(source));
+      assertTrue(size(directory) <= size / 2);
+    }
+
+    new AssemblyCache(directory, 0);
+    assertEquals(0, size(directory));
+  }
+
+  /**
+   * @param directory Directory of an {@link AssemblyCache}.
+   * @return The number of bytes the files in {@code directory} take up.
+   * @throws IOException Thrown if {@code directory} could not be listed.
+   */
+  private static long size(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.list(directory)) {
+      long size = 0;
+
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        size += Files.size(path);
+      }
+
+      return size;
+    }
+  }
+
+  /**
+   * @param module {@link ObjectModule} to link with a module defining X.
+   * @return {@link String} of the machine code and errors of the linked {@link Program}.
+   */
+  private static String link(ObjectModule module) {
+    Program program =
+        Linker.resolve(
+                new String[] {"a", "b"},
+                new ObjectModule[] {module, Compiler.assemble("ORG 10\nX, HEX 1234\n")})
+            .link();
+    StringBuilder builder = new StringBuilder();
+
+    for (Instruction instruction : program.instructions()) {
+      builder.append(instruction).append('\n');
+    }
+
+    return builder.append(program.errors()).toString();
+  }
+}
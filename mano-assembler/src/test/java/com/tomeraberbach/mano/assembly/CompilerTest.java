@@ -0,0 +1,146 @@
+package com.tomeraberbach.mano.assembly;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Tests of {@link Compiler} and {@link IncrementalCompiler}. */
+public class CompilerTest {
+  /** Lines which random edits are made of, including ones which define, move and break labels. */
+  private static final String[] LINES = {
+    "ORG 100",
+    "LDA X",
+    "ADD Y I",
+    "STA X",
+    "BUN Z",
+    "HLT",
+    "X, DEC 1",
+    "Y, HEX 10",
+    "Z, CLA",
+    "X, DEC 2",
+    "FOO",
+    "LDA",
+    "END",
+    "START 10",
+    "",
+    "/ COMMENT",
+  };
+
+  /**
+   * An {@link IncrementalCompiler} given random edits which add, remove and replace lines,
+   * including edits which stop short of the end of the source code and edits after which parsing
+   * goes on the same way as before, compiles the same {@link Program} as {@link
+   * Compiler#compile(String)}.
+   */
+  @Test
+  public void incrementalMatchesCompile() {
+    Random random = new Random(0);
+    IncrementalCompiler incremental = new IncrementalCompiler();
+    List<String> lines = new ArrayList<>();
+
+    for (int edit = 0; edit < 2000; edit++) {
+      int from = random.nextInt(lines.size() + 1);
+      int to = Math.min(lines.size(), from + random.nextInt(3));
+      List<String> replacement = new ArrayList<>();
+
+      for (int i = random.nextInt(3); i > 0; i--) {
+        replacement.add(LINES[random.nextInt(LINES.length)]);
+      }
+
+      lines.subList(from, to).clear();
+      lines.addAll(from, replacement);
+      String source = String.join("\n", lines);
+
+      assertEquals(render(Compiler.compile(source)), render(incremental.compile(source)), source);
+    }
+  }
+
+  /**
+   * A label argument after an invalid instruction token stays with its own instruction, where it
+   * used to be resolved into the instruction after it.
+   */
+  @Test
+  public void invalidTokenThenLabelArgument() {
+    String source = "FOO\nLDA X\nHLT\nX, DEC 1\n";
+
+    for (Program program : programs(source)) {
+      assertEquals(1, program.errors().size(), program.errors()::toString);
+      assertEquals(List.of(0x2003, 0x7001, 0x0001), codes(program));
+    }
+  }
+
+  /**
+   * An undefined label argument after an invalid instruction token is reported against its own
+   * instruction.
+   */
+  @Test
+  public void invalidTokenThenUndefinedLabelArgument() {
+    String source = "FOO\nLDA Y\nHLT\n";
+
+    for (Program program : programs(source)) {
+      assertEquals(
+          List.of(
+              "Invalid instruction token, 'FOO' at line 0 token position 0.",
+              "Unrecognized label name, 'Y' at line 1 token position 1 or potentially missing"
+                  + " argument after 'LDA' at line 1 token position 0."),
+          program.errors());
+      assertEquals(0x7001, codes(program).get(1));
+    }
+  }
+
+  /**
+   * @param source Assembly source code.
+   * @return {@link List} of the {@link Program} compiled from {@code source} by {@link
+   *     Compiler#compile(String)} and by an {@link IncrementalCompiler}.
+   */
+  private static List<Program> programs(String source) {
+    return List.of(Compiler.compile(source), new IncrementalCompiler().compile(source));
+  }
+
+  /**
+   * @param program {@link Program} to render.
+   * @return {@link String} of the start, each {@link Instruction} with its address, machine code
+   *     and tokens, each {@link Label} and each error of {@code program}.
+   */
+  private static String render(Program program) {
+    StringBuilder builder = new StringBuilder().append(program.start()).append('\n');
+
+    for (Instruction instruction : program.instructions()) {
+      builder
+          .append(instruction.address())
+          .append(' ')
+          .append(instruction)
+          .append(' ')
+          .append(Arrays.toString(instruction.tokens()))
+          .append('\n');
+    }
+
+    for (Label label : program.labels()) {
+      builder.append(label).append(' ').append(label.address()).append('\n');
+    }
+
+    for (String error : program.errors()) {
+      builder.append(error).append('\n');
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * @param program {@link Program} to get the machine code of.
+   * @return {@link List} of the machine code of each {@link Instruction} of {@code program}.
+   */
+  private static List<Integer> codes(Program program) {
+    List<Integer> codes = new ArrayList<>();
+
+    for (Instruction instruction : program.instructions()) {
+      codes.add(instruction.code());
+    }
+
+    return codes;
+  }
+}
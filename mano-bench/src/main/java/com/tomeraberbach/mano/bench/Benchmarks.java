@@ -0,0 +1,35 @@
+package com.tomeraberbach.mano.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starting point of the benchmarks jar. Runs JMH with the given arguments, writing results as JSON
+ * to {@link Benchmarks#RESULTS} unless another result format or file is given.
+ */
+public class Benchmarks {
+  /** The file JSON results are written to by default. */
+  public static final String RESULTS = "mano-bench.json";
+
+  /** Empty private constructor to block instantiation. */
+  private Benchmarks() {}
+
+  /**
+   * @param args Arguments for JMH, such as a regular expression of the benchmarks to run.
+   * @throws Exception Thrown when JMH fails.
+   */
+  public static void main(String[] args) throws Exception {
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+
+    if (!arguments.contains("-rf")) {
+      arguments.addAll(0, List.of("-rf", "json"));
+    }
+
+    if (!arguments.contains("-rff")) {
+      arguments.addAll(0, List.of("-rff", RESULTS));
+    }
+
+    org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+  }
+}
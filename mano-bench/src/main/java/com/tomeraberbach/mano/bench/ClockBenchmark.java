@@ -0,0 +1,98 @@
+package com.tomeraberbach.mano.bench;
+
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.Microoperation;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the clocks per second of each way a {@link Computer} can execute a clock. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClockBenchmark {
+  /** The {@link Workload} to run. */
+  @Param public Workload workload;
+
+  /** {@link Computer} running this {@link ClockBenchmark#workload}. */
+  private Computer computer;
+
+  /** The number of instructions executed so far. */
+  private long instructions;
+
+  /** Loads this {@link ClockBenchmark#computer} with this {@link ClockBenchmark#workload}. */
+  @Setup
+  public void setup() {
+    computer = new Computer();
+    computer.load(workload.image());
+    instructions = 0;
+  }
+
+  /**
+   * Executes a clock with {@link Computer#tick()} and then each of its {@link Microoperation}
+   * instances, which is how the application steps.
+   *
+   * @return The sequence counter after the clock.
+   */
+  @Benchmark
+  public int tick() {
+    computer.tick();
+    Microoperation microoperation;
+
+    while ((microoperation = computer.microoperations().poll()) != null) {
+      microoperation.execute(computer);
+    }
+
+    return retire();
+  }
+
+  /**
+   * Executes a clock with {@link Computer#clock()}.
+   *
+   * @return The sequence counter after the clock.
+   */
+  @Benchmark
+  public int clock() {
+    computer.clock();
+    return retire();
+  }
+
+  /**
+   * Executes a clock with {@link Computer#latchedClock()}.
+   *
+   * @return The sequence counter after the clock.
+   */
+  @Benchmark
+  public int latchedClock() {
+    computer.latchedClock();
+    return retire();
+  }
+
+  /**
+   * Counts the instruction which a clock finished, if any, and simulates the devices of this {@link
+   * ClockBenchmark#workload} every {@link Workload#DEVICE_PERIOD} instructions.
+   *
+   * @return The sequence counter of this {@link ClockBenchmark#computer}.
+   */
+  private int retire() {
+    int sc = computer.sc();
+
+    if (sc == 0 && ++instructions % Workload.DEVICE_PERIOD == 0) {
+      workload.devices(computer);
+    }
+
+    return sc;
+  }
+}
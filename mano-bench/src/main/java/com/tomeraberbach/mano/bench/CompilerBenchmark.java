@@ -0,0 +1,90 @@
+package com.tomeraberbach.mano.bench;
+
+import com.tomeraberbach.mano.assembly.Compiler;
+import com.tomeraberbach.mano.assembly.IncrementalCompiler;
+import com.tomeraberbach.mano.assembly.Program;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the latency of {@link Compiler#compile(String)} and of recompiling an edit with
+ * {@link IncrementalCompiler#compile(String)} on each {@link Corpus}. Run with {@code -prof gc} to
+ * also report the allocation rate and bytes allocated per compilation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompilerBenchmark {
+  /** The seed every corpus is generated with. */
+  private static final long SEED = 0;
+
+  /** The shape of the source code to compile. */
+  @Param public Corpus corpus;
+
+  /** The number of lines of the source code to compile. */
+  @Param({"10", "100", "1000", "4096"})
+  public int lines;
+
+  /** The source code to compile. */
+  private String source;
+
+  /**
+   * This {@link CompilerBenchmark#source} with a space inserted at the start of its middle line.
+   */
+  private String edited;
+
+  /** {@link IncrementalCompiler} which alternates between compiling each source code. */
+  private IncrementalCompiler compiler;
+
+  /** The number of edits recompiled. */
+  private int edits;
+
+  /** Generates this {@link CompilerBenchmark#source} and its {@link CompilerBenchmark#edited}. */
+  @Setup
+  public void setup() {
+    source = corpus.generate(lines, SEED);
+
+    // Finds the start of the middle line
+    int index = 0;
+
+    for (int i = 0, newline; i < lines / 2 && (newline = source.indexOf('\n', index)) >= 0; i++) {
+      index = newline + 1;
+    }
+
+    edited = source.substring(0, index) + " " + source.substring(index);
+
+    compiler = new IncrementalCompiler();
+    compiler.compile(source);
+    edits = 0;
+  }
+
+  /**
+   * @return {@link Program} compiled from this {@link CompilerBenchmark#source}.
+   */
+  @Benchmark
+  public Program compile() {
+    return Compiler.compile(source);
+  }
+
+  /**
+   * @return {@link Program} recompiled from this {@link CompilerBenchmark#source} or its {@link
+   *     CompilerBenchmark#edited} after an edit of one line.
+   */
+  @Benchmark
+  public Program recompile() {
+    return compiler.compile((edits++ & 1) == 0 ? edited : source);
+  }
+}
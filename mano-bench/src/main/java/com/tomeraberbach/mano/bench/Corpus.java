@@ -0,0 +1,155 @@
+package com.tomeraberbach.mano.bench;
+
+import java.util.Random;
+
+/**
+ * Enumeration of the shapes of synthetic assembly source code which the assembler is benchmarked
+ * with. {@link Corpus#generate(int, long)} is deterministic, so a corpus is reproduced by its
+ * shape, number of lines, and seed, and {@link Corpus#main(String[])} prints one for inspection.
+ */
+public enum Corpus {
+  /**
+   * Every line is labeled, and memory-reference instructions refer to labels defined on earlier
+   * lines.
+   */
+  LABELS,
+
+  /** Memory-reference instructions refer to labels which are only defined on later lines. */
+  FORWARD,
+
+  /**
+   * About half the lines contain an error: unknown instructions, undefined or duplicate labels,
+   * invalid number literals, or missing arguments.
+   */
+  ERRORS;
+
+  /** The mnemonics of the memory-reference instructions. */
+  private static final String[] MEMORY_REFERENCE = {
+    "AND", "ADD", "LDA", "STA", "BUN", "BSA", "ISZ"
+  };
+
+  /** The mnemonics of the register-reference and input-output instructions. */
+  private static final String[] IMPLICIT_REFERENCE = {
+    "CLA", "CLE", "CMA", "CME", "CIR", "CIL", "INC", "SPA", "SNA", "SZA", "SZE", "HLT", "INP",
+    "OUT", "SKI", "SKO", "ION", "IOF"
+  };
+
+  /** The maximum number of lines of a corpus, which fills every address of the RAM. */
+  public static final int MAX_LINES = 4096;
+
+  /**
+   * {@code lines} must be on the interval [1, {@link Corpus#MAX_LINES}] or an {@link
+   * IllegalArgumentException} is thrown.
+   *
+   * @param lines The number of lines to generate, each of which is compiled to one word.
+   * @param seed The seed of the {@link Random} choosing instructions and operands.
+   * @return Assembly source code of this shape.
+   */
+  public String generate(int lines, long seed) {
+    if (lines < 1 || lines > MAX_LINES) {
+      throw new IllegalArgumentException(
+          "Invalid number of lines, " + lines + ", must be on [1, " + MAX_LINES + "].");
+    }
+
+    Random random = new Random(seed);
+    StringBuilder builder = new StringBuilder();
+
+    for (int line = 0; line < lines; line++) {
+      switch (this) {
+        case LABELS:
+          builder.append('L').append(line).append(", ");
+          line(builder, random, line, line == 0 ? 0 : random.nextInt(line));
+          break;
+
+        case FORWARD:
+          if (line >= lines / 2) {
+            builder.append('L').append(line).append(", ");
+          }
+
+          line(builder, random, line, lines / 2 + random.nextInt(lines - lines / 2));
+          break;
+
+        default:
+          if (random.nextBoolean()) {
+            builder.append('L').append(line).append(", ");
+            line(builder, random, line, random.nextInt(line + 1));
+          } else {
+            error(builder, random, line);
+          }
+          break;
+      }
+
+      builder.append('\n');
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Appends a valid line without its label to {@code builder}.
+   *
+   * @param builder {@link StringBuilder} to append to.
+   * @param random {@link Random} choosing the instruction.
+   * @param line The index of the line.
+   * @param target The index of the line whose label a memory-reference instruction refers to.
+   */
+  private static void line(StringBuilder builder, Random random, int line, int target) {
+    switch (random.nextInt(4)) {
+      case 0:
+        builder.append("DEC ").append(random.nextInt(65536) - 32768);
+        break;
+      case 1:
+        builder
+            .append(IMPLICIT_REFERENCE[random.nextInt(IMPLICIT_REFERENCE.length)])
+            .append(" / line ")
+            .append(line);
+        break;
+      default:
+        builder
+            .append(MEMORY_REFERENCE[random.nextInt(MEMORY_REFERENCE.length)])
+            .append(" L")
+            .append(target)
+            .append(random.nextInt(4) == 0 ? " I" : "");
+        break;
+    }
+  }
+
+  /**
+   * Appends a line containing an error to {@code builder}.
+   *
+   * @param builder {@link StringBuilder} to append to.
+   * @param random {@link Random} choosing the error.
+   * @param line The index of the line.
+   */
+  private static void error(StringBuilder builder, Random random, int line) {
+    switch (random.nextInt(5)) {
+      case 0:
+        builder.append("FOO").append(line);
+        break;
+      case 1:
+        builder.append("LDA MISSING").append(line);
+        break;
+      case 2:
+        builder.append("L0, CLA");
+        break;
+      case 3:
+        builder.append("HEX XYZ").append(line);
+        break;
+      default:
+        builder.append("DEC 99999");
+        break;
+    }
+  }
+
+  /**
+   * Prints a corpus to standard output.
+   *
+   * @param args The shape, the number of lines, and optionally the seed, which defaults to {@code
+   *     0}.
+   */
+  public static void main(String[] args) {
+    System.out.print(
+        valueOf(args[0])
+            .generate(Integer.parseInt(args[1]), args.length > 2 ? Long.parseLong(args[2]) : 0));
+  }
+}
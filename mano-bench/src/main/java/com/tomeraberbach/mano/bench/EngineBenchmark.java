@@ -0,0 +1,56 @@
+package com.tomeraberbach.mano.bench;
+
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.Engine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the instructions per second of each {@link Engine}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineBenchmark {
+  /** The {@link Workload} to run. */
+  @Param public Workload workload;
+
+  /** The {@link Engine} to run this {@link EngineBenchmark#workload} with. */
+  @Param public Engine engine;
+
+  /** {@link Computer} running this {@link EngineBenchmark#workload}. */
+  private Computer computer;
+
+  /** Loads this {@link EngineBenchmark#computer} with this {@link EngineBenchmark#workload}. */
+  @Setup
+  public void setup() {
+    computer = new Computer();
+    computer.load(workload.image());
+  }
+
+  /**
+   * Executes {@link Workload#DEVICE_PERIOD} instructions and then simulates the devices of this
+   * {@link EngineBenchmark#workload}.
+   *
+   * @return The number of instructions which were executed.
+   */
+  @Benchmark
+  @OperationsPerInvocation(Workload.DEVICE_PERIOD)
+  public long run() {
+    long executed = computer.run(engine, Workload.DEVICE_PERIOD);
+    workload.devices(computer);
+    return executed;
+  }
+}
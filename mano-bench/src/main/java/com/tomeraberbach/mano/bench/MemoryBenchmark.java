@@ -0,0 +1,68 @@
+package com.tomeraberbach.mano.bench;
+
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.Image;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the operations which touch the whole RAM of a {@link Computer}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryBenchmark {
+  /** The {@link Workload} whose {@link Image} is loaded. */
+  @Param public Workload workload;
+
+  /** The {@link Image} of this {@link MemoryBenchmark#workload}. */
+  private Image image;
+
+  /** {@link Computer} loaded with this {@link MemoryBenchmark#image}. */
+  private Computer computer;
+
+  /** Loads this {@link MemoryBenchmark#computer} with this {@link MemoryBenchmark#workload}. */
+  @Setup
+  public void setup() {
+    image = workload.image();
+    computer = new Computer();
+    computer.load(image);
+  }
+
+  /**
+   * @return {@link Computer} after {@link Computer#reset()}.
+   */
+  @Benchmark
+  public Computer reset() {
+    computer.reset();
+    return computer;
+  }
+
+  /**
+   * @return {@link Computer} after {@link Computer#load(Image)}.
+   */
+  @Benchmark
+  public Computer load() {
+    computer.load(image);
+    return computer;
+  }
+
+  /**
+   * @return The {@link String} representation of the RAM of this {@link MemoryBenchmark#computer}.
+   */
+  @Benchmark
+  public String ramToString() {
+    return computer.ram().toString();
+  }
+}
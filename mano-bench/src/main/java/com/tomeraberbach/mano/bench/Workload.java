@@ -0,0 +1,149 @@
+package com.tomeraberbach.mano.bench;
+
+import com.tomeraberbach.mano.assembly.Compiler;
+import com.tomeraberbach.mano.assembly.Program;
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.Image;
+
+/**
+ * Enumeration of representative programs to benchmark the simulation with. Every program loops
+ * forever so that throughput is not diluted by reloading it.
+ */
+public enum Workload {
+  /**
+   * The multiplication loop from the examples, which restarts after each product instead of
+   * halting.
+   */
+  MULTIPLY(
+      false,
+      "START, LDA X\n"
+          + "SZA\n"
+          + "BUN Y_0_CHECK\n"
+          + "BUN END\n"
+          + "Y_0_CHECK, LDA Y\n"
+          + "SZA\n"
+          + "BUN MUL\n"
+          + "BUN END\n"
+          + "MUL, LDA RESULT\n"
+          + "ADD X\n"
+          + "STA RESULT\n"
+          + "LDA MUL_COUNTER\n"
+          + "INC\n"
+          + "STA MUL_COUNTER\n"
+          + "CMA\n"
+          + "AND Y\n"
+          + "SZA\n"
+          + "BUN MUL\n"
+          + "END, CLA\n"
+          + "STA RESULT\n"
+          + "STA MUL_COUNTER\n"
+          + "BUN START\n"
+          + "X, DEC 3\n"
+          + "Y, HEX FF\n"
+          + "MUL_COUNTER, DEC 0\n"
+          + "RESULT, HEX 0000\n"),
+
+  /** A tight ISZ counting loop which reloads its counter each time it reaches zero. */
+  COUNT(
+      false,
+      "LOOP, ISZ CNT\n"
+          + "BUN LOOP\n"
+          + "LDA INIT\n"
+          + "STA CNT\n"
+          + "BUN LOOP\n"
+          + "CNT, DEC -1000\n"
+          + "INIT, DEC -1000\n"),
+
+  /**
+   * A counting loop interrupted by input and output devices, whose service routine echoes each
+   * input character to the output.
+   */
+  INTERRUPT(
+      true,
+      "ORG 0\n"
+          + "ZRO, HEX 0\n"
+          + "BUN SRV\n"
+          + "ORG 100\n"
+          + "START 100\n"
+          + "ION\n"
+          + "LOOP, LDA N\n"
+          + "INC\n"
+          + "STA N\n"
+          + "BUN LOOP\n"
+          + "SRV, STA SAV\n"
+          + "SKI\n"
+          + "BUN NXT\n"
+          + "INP\n"
+          + "STA IN\n"
+          + "NXT, SKO\n"
+          + "BUN RET\n"
+          + "LDA IN\n"
+          + "OUT\n"
+          + "RET, LDA SAV\n"
+          + "ION\n"
+          + "BUN ZRO I\n"
+          + "SAV, HEX 0\n"
+          + "IN, HEX 0\n"
+          + "N, DEC 0\n");
+
+  /** The number of instructions after which simulated devices become ready again. */
+  public static final int DEVICE_PERIOD = 64;
+
+  /** boolean representing if input and output devices must be simulated for this program. */
+  private final boolean devices;
+
+  /** The assembly source code of this program. */
+  private final String source;
+
+  /**
+   * @param devices boolean representing if input and output devices must be simulated for this
+   *     program.
+   * @param source The assembly source code of this program.
+   */
+  Workload(boolean devices, String source) {
+    this.devices = devices;
+    this.source = source;
+  }
+
+  /**
+   * @return {@link Workload#source}.
+   */
+  public String source() {
+    return source;
+  }
+
+  /**
+   * {@link Workload#source} must compile without errors or an {@link IllegalStateException} is
+   * thrown.
+   *
+   * @return {@link Image} of this program.
+   */
+  public Image image() {
+    Program program = Compiler.compile(source);
+
+    if (!program.errors().isEmpty()) {
+      throw new IllegalStateException(name() + " does not compile: " + program.errors());
+    }
+
+    return program.image();
+  }
+
+  /**
+   * Raises the input and output flags of {@code computer} if this program uses devices, as if they
+   * had become ready. Benchmarks call this every {@link Workload#DEVICE_PERIOD} instructions.
+   *
+   * @param computer {@link Computer} running this program.
+   */
+  public void devices(Computer computer) {
+    if (devices) {
+      if (computer.fgi().value() == 0) {
+        computer.inpr().load('A');
+        computer.fgi().load(1);
+      }
+
+      if (computer.fgo().value() == 0) {
+        computer.fgo().load(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,5 @@
+/** JMH benchmarks of the simulator and assembler of Mano's basic computer. */
+open module com.tomeraberbach.mano.bench {
+  requires com.tomeraberbach.mano.assembler;
+  requires jmh.core;
+}
@@ -1,9 +1,13 @@
 package com.tomeraberbach.mano;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 
 /** Class containing general methods. */
 public class Utilities {
+  /** The uppercase hexadecimal digit of each value from 0 to 15. */
+  private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+
   /** Empty private constructor to block instantiation. */
   private Utilities() {}
 
@@ -15,7 +19,48 @@ public class Utilities {
    *     value}.
    */
   public static String hex(int value, int digits) {
-    return padLeft(Integer.toHexString(value), '0', digits).toUpperCase();
+    int significant = Math.max(1, (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 3) / 4);
+    char[] chars = new char[Math.max(digits, significant)];
+    hex(value, chars.length, chars, 0);
+    return new String(chars);
+  }
+
+  /**
+   * Writes the {@code digits} lowest hexadecimal digits of {@code value} into {@code buffer}
+   * without allocating.
+   *
+   * @param value Integer to convert to hexadecimal.
+   * @param digits Integer number of hexadecimal digits to write.
+   * @param buffer Array to write the digits into.
+   * @param offset Integer index of {@code buffer} to write the first digit at.
+   * @return Integer index of {@code buffer} after the last digit.
+   */
+  public static int hex(int value, int digits, char[] buffer, int offset) {
+    for (int i = offset + digits - 1; i >= offset; i--) {
+      buffer[i] = DIGITS[value & 0xF];
+      value >>>= 4;
+    }
+
+    return offset + digits;
+  }
+
+  /**
+   * Writes the {@code digits} lowest hexadecimal digits of {@code value} into {@code buffer} as
+   * ASCII bytes at its position, which is advanced past them, without allocating.
+   *
+   * @param value Integer to convert to hexadecimal.
+   * @param digits Integer number of hexadecimal digits to write.
+   * @param buffer {@link ByteBuffer} to write the digits into.
+   */
+  public static void hex(int value, int digits, ByteBuffer buffer) {
+    int position = buffer.position();
+
+    for (int i = position + digits - 1; i >= position; i--) {
+      buffer.put(i, (byte) DIGITS[value & 0xF]);
+      value >>>= 4;
+    }
+
+    buffer.position(position + digits);
   }
 
   /**
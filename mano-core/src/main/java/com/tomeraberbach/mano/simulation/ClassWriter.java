@@ -0,0 +1,432 @@
+package com.tomeraberbach.mano.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal writer of the class files generated to simulate Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>Version 49 class files are written so that branches need no stack map frames. The constant
+ * pool is written last, so entries may be added while the code of each method is written.
+ */
+class ClassWriter {
+  /** The first four bytes of every class file. */
+  static final int MAGIC = 0xCAFEBABE;
+
+  /** The minor version of the class files which are written. */
+  static final int MINOR_VERSION = 0;
+
+  /** The major version of the class files which are written, that of Java 5. */
+  static final int MAJOR_VERSION = 49;
+
+  /** Access flag of a public class or member. */
+  static final int ACC_PUBLIC = 0x0001;
+
+  /** Access flag of a private member. */
+  static final int ACC_PRIVATE = 0x0002;
+
+  /** Access flag of a final class or member. */
+  static final int ACC_FINAL = 0x0010;
+
+  /** Access flag which treats superclass methods specially when invoked by invokespecial. */
+  static final int ACC_SUPER = 0x0020;
+
+  /** Tag of a UTF-8 constant pool entry. */
+  private static final int CONSTANT_UTF8 = 1;
+
+  /** Tag of an integer constant pool entry. */
+  private static final int CONSTANT_INTEGER = 3;
+
+  /** Tag of a class constant pool entry. */
+  private static final int CONSTANT_CLASS = 7;
+
+  /** Tag of a field reference constant pool entry. */
+  private static final int CONSTANT_FIELDREF = 9;
+
+  /** Tag of a class method reference constant pool entry. */
+  private static final int CONSTANT_METHODREF = 10;
+
+  /** Tag of an interface method reference constant pool entry. */
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+  /** Tag of a name and type constant pool entry. */
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  /** Opcode which loads the receiver of a method. */
+  static final int ALOAD_0 = 0x2A;
+
+  /** Opcode which loads the first argument of a method. */
+  static final int ALOAD_1 = 0x2B;
+
+  /** Opcode which loads a reference from an array. */
+  static final int AALOAD = 0x32;
+
+  /** Opcode which pushes a short. */
+  static final int SIPUSH = 0x11;
+
+  /** Opcode which pushes a constant from the constant pool. */
+  static final int LDC_W = 0x13;
+
+  /** Opcode which gets an instance field. */
+  static final int GETFIELD = 0xB4;
+
+  /** Opcode which puts an instance field. */
+  static final int PUTFIELD = 0xB5;
+
+  /** Opcode which invokes an instance method. */
+  static final int INVOKEVIRTUAL = 0xB6;
+
+  /** Opcode which invokes a constructor or private method. */
+  static final int INVOKESPECIAL = 0xB7;
+
+  /** Opcode which invokes an interface method. */
+  static final int INVOKEINTERFACE = 0xB9;
+
+  /** Opcode which branches if an integer is zero. */
+  static final int IFEQ = 0x99;
+
+  /** Opcode which returns an integer. */
+  static final int IRETURN = 0xAC;
+
+  /** Opcode which returns nothing. */
+  static final int RETURN = 0xB1;
+
+  /** The number of bytes of {@link ClassWriter#IFEQ} including its branch offset. */
+  static final int IFEQ_LENGTH = 3;
+
+  /** The number of bytes of {@link ClassWriter#SIPUSH} including its operand. */
+  static final int SIPUSH_LENGTH = 3;
+
+  /** The constant pool entries written so far. */
+  private final ByteArrayOutputStream pool;
+
+  /** {@link DataOutputStream} over this {@link ClassWriter#pool}. */
+  private final DataOutputStream out;
+
+  /** Maps the description of each constant pool entry to its index. */
+  private final Map<String, Integer> indices;
+
+  /** The access flags of the class. */
+  private final int access;
+
+  /** Index of the class entry of the class. */
+  private final int thisType;
+
+  /** Index of the class entry of the superclass. */
+  private final int superType;
+
+  /** Indices of the class entries of the interfaces the class implements. */
+  private final int[] interfaceTypes;
+
+  /** The fields declared so far. */
+  private final ByteArrayOutputStream fields;
+
+  /** The number of fields declared so far. */
+  private int fieldCount;
+
+  /** The methods declared so far. */
+  private final ByteArrayOutputStream methods;
+
+  /** The number of methods declared so far. */
+  private int methodCount;
+
+  /**
+   * @param access The access flags of the class.
+   * @param name Internal name of the class.
+   * @param superName Internal name of the superclass.
+   * @param interfaces Internal names of the interfaces the class implements.
+   */
+  ClassWriter(int access, String name, String superName, String... interfaces) {
+    pool = new ByteArrayOutputStream();
+    out = new DataOutputStream(pool);
+    indices = new HashMap<>();
+    this.access = access;
+    thisType = type(name);
+    superType = type(superName);
+    interfaceTypes = new int[interfaces.length];
+
+    for (int i = 0; i < interfaces.length; i++) {
+      interfaceTypes[i] = type(interfaces[i]);
+    }
+
+    fields = new ByteArrayOutputStream();
+    methods = new ByteArrayOutputStream();
+  }
+
+  /**
+   * @param key Description of a constant pool entry.
+   * @param tag Tag of the entry.
+   * @param writer Writes the contents of the entry after its tag.
+   * @return Index of the entry, which is written if it was not already.
+   */
+  private int constant(String key, int tag, IOConsumer writer) {
+    Integer index = indices.get(key);
+
+    if (index == null) {
+      try {
+        out.writeByte(tag);
+        writer.accept(out);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      index = indices.size() + 1;
+      indices.put(key, index);
+    }
+
+    return index;
+  }
+
+  /**
+   * @param value {@link String} of a UTF-8 entry.
+   * @return Index of the entry.
+   */
+  int utf8(String value) {
+    return constant("U" + value, CONSTANT_UTF8, out -> out.writeUTF(value));
+  }
+
+  /**
+   * @param name Internal name of a class.
+   * @return Index of the class entry.
+   */
+  int type(String name) {
+    int index = utf8(name);
+    return constant("C" + name, CONSTANT_CLASS, out -> out.writeShort(index));
+  }
+
+  /**
+   * @param tag Tag of a field or method reference.
+   * @param owner Internal name of the class declaring the member.
+   * @param name Name of the member.
+   * @param descriptor Descriptor of the member.
+   * @return Index of the reference entry.
+   */
+  private int member(int tag, String owner, String name, String descriptor) {
+    int type = type(owner);
+    int nameIndex = utf8(name);
+    int descriptorIndex = utf8(descriptor);
+    int nameAndType =
+        constant(
+            "N" + name + descriptor,
+            CONSTANT_NAME_AND_TYPE,
+            out -> {
+              out.writeShort(nameIndex);
+              out.writeShort(descriptorIndex);
+            });
+
+    return constant(
+        tag + owner + "." + name + descriptor,
+        tag,
+        out -> {
+          out.writeShort(type);
+          out.writeShort(nameAndType);
+        });
+  }
+
+  /**
+   * @param owner Internal name of the class declaring the field.
+   * @param name Name of the field.
+   * @param descriptor Descriptor of the field.
+   * @return Index of the field reference entry.
+   */
+  int field(String owner, String name, String descriptor) {
+    return member(CONSTANT_FIELDREF, owner, name, descriptor);
+  }
+
+  /**
+   * @param owner Internal name of the class declaring the method.
+   * @param name Name of the method.
+   * @param descriptor Descriptor of the method.
+   * @return Index of the method reference entry.
+   */
+  int method(String owner, String name, String descriptor) {
+    return member(CONSTANT_METHODREF, owner, name, descriptor);
+  }
+
+  /**
+   * @param owner Internal name of the interface declaring the method.
+   * @param name Name of the method.
+   * @param descriptor Descriptor of the method.
+   * @return Index of the interface method reference entry.
+   */
+  int interfaceMethod(String owner, String name, String descriptor) {
+    return member(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor);
+  }
+
+  /**
+   * Writes an instruction which pushes {@code value}.
+   *
+   * @param code {@link DataOutputStream} of the code being written.
+   * @param value Integer to push.
+   * @throws IOException Never thrown for in-memory streams.
+   */
+  void push(DataOutputStream code, int value) throws IOException {
+    if (value <= Short.MAX_VALUE) {
+      code.writeByte(SIPUSH);
+      code.writeShort(value);
+    } else {
+      int index = constant("I" + value, CONSTANT_INTEGER, out -> out.writeInt(value));
+      code.writeByte(LDC_W);
+      code.writeShort(index);
+    }
+  }
+
+  /**
+   * Writes an instruction which invokes an instance method.
+   *
+   * @param code {@link DataOutputStream} of the code being written.
+   * @param owner Internal name of the class declaring the method.
+   * @param name Name of the method.
+   * @param descriptor Descriptor of the method.
+   * @throws IOException Never thrown for in-memory streams.
+   */
+  void invoke(DataOutputStream code, String owner, String name, String descriptor)
+      throws IOException {
+    code.writeByte(INVOKEVIRTUAL);
+    code.writeShort(method(owner, name, descriptor));
+  }
+
+  /**
+   * Writes an instruction which invokes the constructor of the superclass, {@code owner}, with no
+   * arguments on the receiver which has already been loaded.
+   *
+   * @param code {@link DataOutputStream} of the code being written.
+   * @param owner Internal name of the superclass.
+   * @throws IOException Never thrown for in-memory streams.
+   */
+  void invokeSuper(DataOutputStream code, String owner) throws IOException {
+    code.writeByte(INVOKESPECIAL);
+    code.writeShort(method(owner, "<init>", "()V"));
+  }
+
+  /**
+   * Writes an instruction which invokes an interface method taking and returning references only.
+   *
+   * @param code {@link DataOutputStream} of the code being written.
+   * @param owner Internal name of the interface declaring the method.
+   * @param name Name of the method.
+   * @param descriptor Descriptor of the method.
+   * @param arguments The number of arguments of the method, excluding the receiver.
+   * @throws IOException Never thrown for in-memory streams.
+   */
+  void invokeInterface(
+      DataOutputStream code, String owner, String name, String descriptor, int arguments)
+      throws IOException {
+    code.writeByte(INVOKEINTERFACE);
+    code.writeShort(interfaceMethod(owner, name, descriptor));
+    // The number of argument slots including the receiver, followed by a reserved zero
+    code.writeByte(arguments + 1);
+    code.writeByte(0);
+  }
+
+  /**
+   * Declares a field of the class.
+   *
+   * @param access The access flags of the field.
+   * @param name Name of the field.
+   * @param descriptor Descriptor of the field.
+   */
+  void declareField(int access, String name, String descriptor) {
+    try {
+      DataOutputStream field = new DataOutputStream(fields);
+      field.writeShort(access);
+      field.writeShort(utf8(name));
+      field.writeShort(utf8(descriptor));
+      // No attributes
+      field.writeShort(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    fieldCount++;
+  }
+
+  /**
+   * Declares a method of the class with no exception handlers.
+   *
+   * @param access The access flags of the method.
+   * @param name Name of the method.
+   * @param descriptor Descriptor of the method.
+   * @param maxStack The maximum depth of the operand stack of {@code code}.
+   * @param maxLocals The number of local variable slots of {@code code}, including arguments.
+   * @param code The bytecode of the method.
+   */
+  void declareMethod(
+      int access, String name, String descriptor, int maxStack, int maxLocals, byte[] code) {
+    try {
+      DataOutputStream method = new DataOutputStream(methods);
+      method.writeShort(access);
+      method.writeShort(utf8(name));
+      method.writeShort(utf8(descriptor));
+
+      // Only a Code attribute: its limits, code, empty exception table and no attributes
+      method.writeShort(1);
+      method.writeShort(utf8("Code"));
+      method.writeInt(Short.BYTES + Short.BYTES + Integer.BYTES + code.length + 2 * Short.BYTES);
+      method.writeShort(maxStack);
+      method.writeShort(maxLocals);
+      method.writeInt(code.length);
+      method.write(code);
+      method.writeShort(0);
+      method.writeShort(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    methodCount++;
+  }
+
+  /**
+   * @return Bytes of the class file.
+   */
+  byte[] toByteArray() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream file = new DataOutputStream(bytes);
+
+    try {
+      file.writeInt(MAGIC);
+      file.writeShort(MINOR_VERSION);
+      file.writeShort(MAJOR_VERSION);
+      file.writeShort(indices.size() + 1);
+      pool.writeTo(file);
+
+      file.writeShort(access);
+      file.writeShort(thisType);
+      file.writeShort(superType);
+      file.writeShort(interfaceTypes.length);
+
+      for (int interfaceType : interfaceTypes) {
+        file.writeShort(interfaceType);
+      }
+
+      file.writeShort(fieldCount);
+      fields.writeTo(file);
+      file.writeShort(methodCount);
+      methods.writeTo(file);
+
+      // No attributes
+      file.writeShort(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /** {@link java.util.function.Consumer} of a {@link DataOutputStream} which may throw. */
+  private interface IOConsumer {
+    /**
+     * @param out {@link DataOutputStream} to write to.
+     * @throws IOException Thrown if writing fails.
+     */
+    void accept(DataOutputStream out) throws IOException;
+  }
+}
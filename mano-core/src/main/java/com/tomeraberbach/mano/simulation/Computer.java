@@ -1,11 +1,6 @@
 package com.tomeraberbach.mano.simulation;
 
-import com.tomeraberbach.mano.assembly.Program;
-import com.tomeraberbach.mano.assembly.Token;
 import java.util.*;
-import java.util.stream.Collectors;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 
 /**
  * Class representing Mano's computer as detailed in:<br>
@@ -41,7 +36,8 @@ public class Computer {
   public static final int IO_SIZE = 8;
 
   static {
-    Set<Signal> set = new HashSet<>();
+    // Insertion ordered so that the order microoperations are pushed in is deterministic
+    Set<Signal> set = new LinkedHashSet<>();
 
     set.add(
         new Signal(
@@ -74,10 +70,10 @@ public class Computer {
                         ((computer.decoder.value(7) && !computer.i.value(0) && computer.sc() == 3)
                             && (
                             // rB4(AC(15))'
-                            (computer.ir.value(4) && !computer.ac.value(15))
+                            (computer.ir.value(4) && !computer.ac.value(computer.valueSize - 1))
                                 ||
                                 // rB3(AC(15))
-                                (computer.ir.value(3) && computer.ac.value(15))
+                                (computer.ir.value(3) && computer.ac.value(computer.valueSize - 1))
                                 ||
                                 // rB2(AC)'
                                 (computer.ir.value(2) && computer.ac.value() == 0)
@@ -100,23 +96,23 @@ public class Computer {
             new Control("R'T2", computer -> !computer.r.value(0) && computer.sc() == 2),
             new Microoperation(
                 "D0, ..., D7 <- Decode IR(12-14)",
-                computer -> {
-                  boolean[] bits = new boolean[8];
-                  bits[computer.ir.value(12, 14)] = true;
-                  computer.decoder.load(Computer.value(bits));
-                })));
+                computer ->
+                    computer.decoder.load(
+                        1 << computer.ir.value(computer.addressSize, computer.addressSize + 2)))));
 
     set.add(
         new Signal(
             new Control("R'T2", computer -> !computer.r.value(0) && computer.sc() == 2),
             new Microoperation(
-                "AR <- IR(0-11)", computer -> computer.ar.load(computer.ir.value(0, 11)))));
+                "AR <- IR(0-11)",
+                computer -> computer.ar.load(computer.ir.value(0, computer.addressSize - 1)))));
 
     set.add(
         new Signal(
             new Control("R'T2", computer -> !computer.r.value(0) && computer.sc() == 2),
             new Microoperation(
-                "I <- IR(15)", computer -> computer.i.load(computer.ir.value(15) ? 1 : 0))));
+                "I <- IR(15)",
+                computer -> computer.i.load(computer.ir.value(computer.valueSize - 1) ? 1 : 0))));
 
     set.add(
         new Signal(
@@ -214,7 +210,7 @@ public class Computer {
                         ||
                         // p = D7IT3
                         (computer.decoder.value(7) && computer.i.value(0) && computer.sc() == 3)),
-            new Microoperation("SC <- 0", computer -> computer.sc.setValue(0))));
+            new Microoperation("SC <- 0", computer -> computer.sc(0))));
 
     set.add(
         new Signal(
@@ -392,19 +388,9 @@ public class Computer {
                         && computer.ir.value(11)),
             new Microoperation(
                 "AC(0-7) <- INPR",
-                computer -> {
-                  boolean[] bits = new boolean[computer.ac.size()];
-
-                  for (int i = 0; i <= 7; i++) {
-                    bits[i] = computer.inpr.value(i);
-                  }
-
-                  for (int i = 8; i < computer.ac.size(); i++) {
-                    bits[i] = computer.ac.value(i);
-                  }
-
-                  computer.ac.load(Computer.value(bits));
-                })));
+                computer ->
+                    computer.ac.load(
+                        computer.ac.value() & ~computer.inpr.max() | computer.inpr.value()))));
 
     set.add(
         new Signal(
@@ -455,11 +441,26 @@ public class Computer {
   }
 
   /** The current T state of the sequence counter in this {@link Computer}. */
-  private SimpleIntegerProperty sc;
+  private int sc;
+
+  /** The integer number of bits the addresses of this {@link Computer} support. */
+  private int addressSize;
+
+  /** The integer number of bits the values of this {@link Computer} support. */
+  private int valueSize;
 
   /** The {@link RAM} of this {@link Computer}. */
   private RAM ram;
 
+  /** The {@link InstructionCache} of this {@link Computer#ram}. */
+  private InstructionCache instructionCache;
+
+  /**
+   * The {@link Translator} of this {@link Computer#ram}, or {@code null} until this {@link
+   * Computer} is first run with {@link Engine#TRANSLATION}.
+   */
+  private Translator translator;
+
   /** The result of decoding IR(12-14) in this {@link Computer}. */
   private Register decoder;
 
@@ -511,20 +512,57 @@ public class Computer {
   /** {@link ArrayDeque} {@link Microoperation} instances which are next in line to execute. */
   private ArrayDeque<Microoperation> microoperations;
 
+  /** The {@link Register} instances of this {@link Computer} latched by a latched clock. */
+  private Register[] registers;
+
   /**
-   * Constructor which initializes this {@link Computer} with T = 0, cleared {@link RAM}, and all
-   * {@link Register} instances cleared.
+   * Constructor which is the equivalent of calling {@link Computer#Computer(int, int)} with {@link
+   * Computer#ADDRESS_SIZE} and {@link Computer#VALUE_SIZE}.
    */
   public Computer() {
-    sc = new SimpleIntegerProperty(0);
-    this.ram = new RAM();
+    this(ADDRESS_SIZE, VALUE_SIZE);
+  }
+
+  /**
+   * Constructor which initializes this {@link Computer} with T = 0, cleared {@link RAM}, and all
+   * {@link Register} instances cleared. An instruction keeps the layout of Mano's computer with a
+   * wider address: the address in its low {@code addressSize} bits, the opcode in the three bits
+   * above them, and the indirect bit above the opcode, so {@code valueSize} must be {@code
+   * addressSize} plus four and no larger than {@link Computer#MAX_SIZE} or an {@link
+   * IllegalArgumentException} is thrown. The register-reference and input-output operations keep
+   * using the low twelve bits, so {@code addressSize} must be at least {@link
+   * Computer#ADDRESS_SIZE}.
+   *
+   * @param addressSize The integer number of bits the addresses of this {@link Computer} support.
+   * @param valueSize The integer number of bits the values of this {@link Computer} support.
+   */
+  public Computer(int addressSize, int valueSize) {
+    validateSize(valueSize);
+
+    if (addressSize < ADDRESS_SIZE || valueSize != addressSize + 4) {
+      throw new IllegalArgumentException(
+          "Invalid sizes "
+              + addressSize
+              + " and "
+              + valueSize
+              + ". The address size must be at least "
+              + ADDRESS_SIZE
+              + " and the value size four more than it.");
+    }
+
+    sc = 0;
+    this.addressSize = addressSize;
+    this.valueSize = valueSize;
+    this.ram = new RAM(addressSize, valueSize);
+    instructionCache = new InstructionCache(ram);
+    translator = null;
     decoder = new Register(8);
-    pc = new Register(ADDRESS_SIZE);
-    ar = new Register(ADDRESS_SIZE);
-    ir = new Register(VALUE_SIZE);
-    tr = new Register(VALUE_SIZE);
-    dr = new Register(VALUE_SIZE);
-    ac = new Register(VALUE_SIZE);
+    pc = new Register(addressSize);
+    ar = new Register(addressSize);
+    ir = new Register(valueSize);
+    tr = new Register(valueSize);
+    dr = new Register(valueSize);
+    ac = new Register(valueSize);
     inpr = new Register(IO_SIZE);
     outr = new Register(IO_SIZE);
     i = new Register();
@@ -535,6 +573,8 @@ public class Computer {
     fgo = new Register();
     s = new Register();
     microoperations = new ArrayDeque<>();
+    registers =
+        new Register[] {decoder, pc, ar, ir, tr, dr, ac, inpr, outr, i, r, ien, e, fgi, fgo, s};
   }
 
   /**
@@ -573,7 +613,7 @@ public class Computer {
    *     bits.
    */
   public static int maxValue(int size) {
-    return (int) Math.pow(2, size) - 1;
+    return (1 << size) - 1;
   }
 
   /**
@@ -643,7 +683,7 @@ public class Computer {
     int number = 0;
 
     for (int i = 0; i < bits.length; i++) {
-      number += bits[i] ? Math.pow(2, i) : 0;
+      number |= bits[i] ? 1 << i : 0;
     }
 
     return number;
@@ -657,23 +697,46 @@ public class Computer {
    *     {@code 1}.
    */
   public static boolean bit(int digit, int value) {
-    return (value & (int) Math.pow(2, digit)) > 0;
+    return (value >>> digit & 1) == 1;
   }
 
   /**
-   * @return {@link IntegerProperty#get()} of {@link Computer#sc}.
+   * @return {@link Computer#addressSize}.
    */
-  public int sc() {
-    return sc.get();
+  public int addressSize() {
+    return addressSize;
+  }
+
+  /**
+   * @return {@link Computer#valueSize}.
+   */
+  public int valueSize() {
+    return valueSize;
   }
 
   /**
    * @return {@link Computer#sc}.
    */
-  public SimpleIntegerProperty scProperty() {
+  public int sc() {
     return sc;
   }
 
+  /**
+   * Sets this {@link Computer#sc}.
+   *
+   * @param sc Integer T state to set this {@link Computer#sc} to.
+   */
+  void sc(int sc) {
+    this.sc = sc;
+  }
+
+  /**
+   * @return {@link Computer#instructionCache}.
+   */
+  public InstructionCache instructionCache() {
+    return instructionCache;
+  }
+
   /**
    * @return {@link Computer#ram}.
    */
@@ -681,6 +744,13 @@ public class Computer {
     return ram;
   }
 
+  /**
+   * @return {@link Computer#decoder}.
+   */
+  public Register decoder() {
+    return decoder;
+  }
+
   /**
    * @return {@link Computer#pc}.
    */
@@ -796,27 +866,12 @@ public class Computer {
   /**
    * {@link Computer#s} will be loaded with {@code 1}.
    *
-   * @param program {@link Program} to load this {@link Computer} with.
+   * @param image {@link Image} to load this {@link Computer} with.
    */
-  public void load(Program program) {
+  public void load(Image image) {
     reset();
-    pc.load(program.start());
-    program
-        .instructions()
-        .forEach(
-            instruction -> {
-              ram.values().get(instruction.address()).setValue(instruction.code());
-              ram.values()
-                  .get(instruction.address())
-                  .setInstruction(
-                      Arrays.stream(instruction.tokens())
-                          .map(Token::lexeme)
-                          .collect(Collectors.joining(" ")));
-            });
-    program
-        .labels()
-        .forEach(label -> ram.values().get(label.address()).setLabel(label.token().lexeme()));
-
+    pc.load(image.start());
+    ram.load(image);
     s.load(1);
   }
 
@@ -825,13 +880,10 @@ public class Computer {
    * {@link Computer#Computer()}.
    */
   public void reset() {
-    sc.setValue(0);
+    sc(0);
     decoder.clear();
 
-    for (int i = 0; i <= ram.maxAddress(); i++) {
-      ram.write(i, 0);
-      ram.values().get(i).setLabel("");
-    }
+    ram.clear();
 
     pc.clear();
     ar.clear();
@@ -849,22 +901,157 @@ public class Computer {
     fgo.clear();
 
     microoperations.clear();
+
+    if (translator != null) {
+      translator.reset();
+    }
   }
 
   /**
-   * Gets the next batch {@link Microoperation} instances to be executed and adds them to this
-   * {@link Computer#microoperations}. {@link Computer#sc} is incremented at the end of this method.
+   * Gets the next batch {@link Microoperation} instances to be executed from {@link
+   * ControlUnit#decode(Computer, ArrayDeque)} and adds them to this {@link
+   * Computer#microoperations}. {@link Computer#sc} is incremented at the end of this method.
    *
    * @throws IllegalStateException Thrown when {@link Computer#s} is unasserted.
    */
   public void tick() throws IllegalStateException {
     if (s.value(0)) {
-      SIGNALS.stream()
-          .filter(signal -> signal.test(this))
-          .map(Signal::microoperation)
-          .forEach(microoperations::push);
+      ControlUnit.decode(this, microoperations);
+
+      sc(sc + 1);
+    }
+  }
+
+  /**
+   * Executes a whole clock with one call to a {@link Microoperation} fused by {@link
+   * ControlUnit#fuse(Computer)}. If {@link Computer#microoperations} is not empty, the clock in
+   * progress is finished by executing them instead. {@link Computer#sc} is incremented before the
+   * {@link Microoperation} instances execute, just as with {@link Computer#tick()}.
+   *
+   * @return {@link Microoperation} which was executed, or {@code null} if {@link Computer#s} is
+   *     unasserted and no {@link Microoperation} instances were pending.
+   */
+  public Microoperation clock() {
+    Microoperation microoperation;
+
+    if (!microoperations.isEmpty()) {
+      microoperation = Microoperation.sequence(new ArrayList<>(microoperations));
+      microoperations.clear();
+    } else if (s.value(0)) {
+      microoperation = ControlUnit.fuse(this);
+      sc(sc + 1);
+    } else {
+      return null;
+    }
+
+    microoperation.execute(this);
+    return microoperation;
+  }
+
+  /**
+   * Executes a whole clock like {@link Computer#clock()}, but with two-phase latch semantics as in
+   * hardware: every {@link Register} and the {@link RAM} are latched, so each {@link
+   * Microoperation} of the clock reads the state from before the clock, and all their changes are
+   * committed together at its end.
+   *
+   * <p>Several {@link Microoperation} instances of a clock may change the same {@link Register},
+   * such as INC and CMA in one register-reference instruction. They run in the order {@link
+   * Computer#clock()} runs them, which is from the last {@link Signal} of {@link Computer#SIGNALS}
+   * to the first, and each change builds on the value left by the one before it, so INC then CMA
+   * complements the incremented accumulator. Of several writes to one address, the last one in that
+   * order wins. The result is then the same as that of {@link Computer#clock()}.
+   *
+   * @return {@link Microoperation} which was executed, or {@code null} if {@link Computer#s} is
+   *     unasserted and no {@link Microoperation} instances were pending.
+   */
+  public Microoperation latchedClock() {
+    Microoperation microoperation;
+
+    if (!microoperations.isEmpty()) {
+      microoperation = Microoperation.sequence(new ArrayList<>(microoperations));
+      microoperations.clear();
+    } else if (s.value(0)) {
+      microoperation = ControlUnit.fuse(this);
+      sc(sc + 1);
+    } else {
+      return null;
+    }
+
+    for (Register register : registers) {
+      register.latch();
+    }
+
+    ram.latch();
+
+    try {
+      microoperation.execute(this);
+    } finally {
+      for (Register register : registers) {
+        register.commit();
+      }
 
-      sc.setValue(sc.get() + 1);
+      ram.commit();
     }
+
+    return microoperation;
+  }
+
+  /**
+   * Runs this {@link Computer} until {@link Computer#s} is unasserted or {@code limit} instructions
+   * have been executed. An instruction which is in progress is finished with {@link
+   * Engine#MICROOPERATION} regardless of {@code engine}, and this {@link Computer} is left between
+   * instructions so stepping can resume from there. If an instruction fails, this {@link Computer}
+   * is left in the clock it failed in, as {@link Engine#MICROOPERATION} would leave it.
+   *
+   * @param engine {@link Engine} to execute instructions with.
+   * @param limit The maximum number of instructions to execute.
+   * @return The number of instructions, counting interrupt cycles, which were executed.
+   */
+  public long run(Engine engine, long limit) {
+    long executed = 0;
+
+    if (engine == Engine.INSTRUCTION || engine == Engine.TRANSLATION) {
+      if (sc != 0 || !microoperations.isEmpty()) {
+        executed += run(Engine.MICROOPERATION, 1);
+      }
+
+      if (engine == Engine.TRANSLATION && translator == null) {
+        translator = new Translator(ram);
+      }
+
+      if (executed < limit && s.value(0)) {
+        Interpreter interpreter =
+            new Interpreter(this, engine == Engine.TRANSLATION ? translator : null);
+
+        try {
+          try {
+            executed += interpreter.run(limit - executed);
+          } finally {
+            interpreter.store();
+          }
+        } catch (IllegalArgumentException e) {
+          // The failed instruction was rewound, so executing it again one clock at a time fails in
+          // the same clock as it would have without the interpreter
+          run(Engine.MICROOPERATION, 1);
+          throw e;
+        }
+      }
+
+      return executed;
+    }
+
+    while (executed < limit && s.value(0)) {
+      if (engine == Engine.LATCH) {
+        latchedClock();
+      } else {
+        clock();
+      }
+
+      if (sc == 0) {
+        executed++;
+      }
+    }
+
+    return executed;
   }
 }
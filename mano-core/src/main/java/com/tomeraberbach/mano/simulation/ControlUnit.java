@@ -0,0 +1,318 @@
+package com.tomeraberbach.mano.simulation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class representing the hardwired control unit of Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>Every {@link Control} in {@link Computer#SIGNALS} is evaluated once at class initialization
+ * for each combination of the inputs control functions read: R, SC, D0-D7, I, IEN, FGI, FGO, E,
+ * (DR)', AC(15), and (AC)'. The set of active {@link Signal} instances for a state is then a single
+ * table lookup. The bits IR(0-11) are only read by the register-reference and input-output control
+ * functions (D7T3) where each bit enables its own {@link Signal} instances, so for those states the
+ * table stores a mask per bit and the active masks of the bits which are set are combined.
+ *
+ * <p>The {@link Microoperation} instances of a clock can also be fused by {@link
+ * ControlUnit#fuse(Computer)} into one {@link Microoperation} which executes them in the order they
+ * would be polled after {@link ControlUnit#decode(Computer, ArrayDeque)}. A fused {@link
+ * Microoperation} is straight-line code built by {@link Microoperation#fuse(List)} with one call
+ * site per part, and states with the same active {@link Signal} instances share it. The fused
+ * {@link Microoperation} of every state in the table is built at class initialization, including
+ * those of the register-reference and input-output instructions which set a single bit of IR(0-11),
+ * so no lock is taken on the way. Instructions combining several operations are fused the first
+ * time they are executed.
+ */
+public class ControlUnit {
+  /** The {@link Signal} instances of {@link Computer#SIGNALS} in iteration order. */
+  private static final Signal[] SIGNALS;
+
+  /** The number of sequence counter values which have entries in {@link ControlUnit#MASKS}. */
+  private static final int TIMES = 8;
+
+  /** The number of decoder states; D0-D7 followed by a cleared decoder. */
+  private static final int DECODES = 9;
+
+  /** The number of flags read by control functions (IEN, FGI, FGO, E, (DR)', AC(15), (AC)'). */
+  private static final int FLAGS = 7;
+
+  /** The number of bits of the instruction register read by control functions. */
+  private static final int IR_BITS = 12;
+
+  /**
+   * Masks of the indices in {@link ControlUnit#SIGNALS} which are active in a state, indexed by
+   * {@link ControlUnit#key(int, int, int, int, int)}.
+   */
+  private static final long[] MASKS;
+
+  /**
+   * Masks of the indices in {@link ControlUnit#SIGNALS} which are active in a state when a bit of
+   * IR(0-11) is set, indexed by {@link ControlUnit#key(int, int, int, int, int)} and then by bit.
+   * An entry is {@code null} for states in which IR is not read.
+   */
+  private static final long[][] IR_MASKS;
+
+  /**
+   * The fused {@link Microoperation} of each entry of {@link ControlUnit#MASKS}, indexed by {@link
+   * ControlUnit#key(int, int, int, int, int)}.
+   */
+  private static final Microoperation[] FUSED;
+
+  /**
+   * The fused {@link Microoperation} of each state in which IR(0-11) is read and exactly one of its
+   * bits is set, indexed by {@link ControlUnit#key(int, int, int, int, int)} and then by bit. An
+   * entry is {@code null} for states in which IR is not read.
+   */
+  private static final Microoperation[][] IR_FUSED;
+
+  /** The maximum number of entries of {@link ControlUnit#SEQUENCES}. */
+  private static final int MAX_SEQUENCES = 4096;
+
+  /**
+   * The fused {@link Microoperation} of each mask of indices in {@link ControlUnit#SIGNALS} built
+   * so far, so states with the same active {@link Signal} instances share one hidden class.
+   */
+  private static final Map<Long, Microoperation> SEQUENCES = new ConcurrentHashMap<>();
+
+  static {
+    SIGNALS = Computer.SIGNALS.toArray(new Signal[0]);
+
+    if (SIGNALS.length > Long.SIZE) {
+      throw new IllegalStateException(
+          "Too many signals, " + SIGNALS.length + ", for a " + Long.SIZE + " bit mask.");
+    }
+
+    MASKS = new long[2 * TIMES * DECODES * 2 * (1 << FLAGS)];
+    IR_MASKS = new long[MASKS.length][];
+    FUSED = new Microoperation[MASKS.length];
+    IR_FUSED = new Microoperation[MASKS.length][];
+
+    Computer computer = new Computer();
+
+    for (int r = 0; r < 2; r++) {
+      for (int sc = 0; sc < TIMES; sc++) {
+        for (int d = 0; d < DECODES; d++) {
+          for (int i = 0; i < 2; i++) {
+            for (int flags = 0; flags < 1 << FLAGS; flags++) {
+              int key = key(r, sc, d, i, flags);
+              probe(computer, r, sc, d, i, flags, 0);
+              MASKS[key] = mask(computer);
+              FUSED[key] = sequence(MASKS[key]);
+
+              if (d == 7 && sc == 3) {
+                IR_MASKS[key] = new long[IR_BITS];
+                IR_FUSED[key] = new Microoperation[IR_BITS];
+
+                for (int bit = 0; bit < IR_BITS; bit++) {
+                  probe(computer, r, sc, d, i, flags, 1 << bit);
+                  IR_MASKS[key][bit] = mask(computer) & ~MASKS[key];
+                  IR_FUSED[key][bit] = sequence(MASKS[key] | IR_MASKS[key][bit]);
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** Empty private constructor to block instantiation. */
+  private ControlUnit() {}
+
+  /**
+   * @param r Value of the interrupt raised flip-flop.
+   * @param sc Value of the sequence counter.
+   * @param d Index of the asserted decoder output, or {@code 8} if none is asserted.
+   * @param i Value of the indirect addressing flip-flop.
+   * @param flags Bits representing IEN, FGI, FGO, E, (DR)', AC(15), and (AC)' from least to most
+   *     significant.
+   * @return Integer index of the state into {@link ControlUnit#MASKS}.
+   */
+  private static int key(int r, int sc, int d, int i, int flags) {
+    return (((r * TIMES + sc) * DECODES + d) * 2 + i) * (1 << FLAGS) + flags;
+  }
+
+  /**
+   * Loads {@code computer} with the state described by the arguments.
+   *
+   * @param computer {@link Computer} to load.
+   * @param r Value of the interrupt raised flip-flop.
+   * @param sc Value of the sequence counter.
+   * @param d Index of the asserted decoder output, or {@code 8} if none is asserted.
+   * @param i Value of the indirect addressing flip-flop.
+   * @param flags Bits representing IEN, FGI, FGO, E, (DR)', AC(15), and (AC)' from least to most
+   *     significant.
+   * @param ir Value of the instruction register.
+   */
+  private static void probe(Computer computer, int r, int sc, int d, int i, int flags, int ir) {
+    computer.r().load(r);
+    computer.sc(sc);
+    computer.decoder().load(d < 8 ? 1 << d : 0);
+    computer.i().load(i);
+    computer.ien().load(flags & 1);
+    computer.fgi().load(flags >> 1 & 1);
+    computer.fgo().load(flags >> 2 & 1);
+    computer.e().load(flags >> 3 & 1);
+    computer.dr().load((flags >> 4 & 1) == 1 ? 0 : 1);
+    computer
+        .ac()
+        .load((flags >> 6 & 1) == 1 ? 0 : (flags >> 5 & 1) == 1 ? 1 << Computer.VALUE_SIZE - 1 : 1);
+    computer.ir().load(ir);
+  }
+
+  /**
+   * @param computer {@link Computer} whose state will be tested by every {@link Signal}.
+   * @return Mask of the indices in {@link ControlUnit#SIGNALS} which are active for {@code
+   *     computer}.
+   */
+  static long mask(Computer computer) {
+    long mask = 0;
+
+    for (int i = 0; i < SIGNALS.length; i++) {
+      if (SIGNALS[i].test(computer)) {
+        mask |= 1L << i;
+      }
+    }
+
+    return mask;
+  }
+
+  /**
+   * @param mask Mask of indices in {@link ControlUnit#SIGNALS}.
+   * @return {@link Microoperation} which executes the {@link Microoperation} instances of the
+   *     {@link Signal} instances in {@code mask} from the highest index to the lowest, which is the
+   *     order they are polled in after being pushed.
+   */
+  private static Microoperation sequence(long mask) {
+    Microoperation fused = SEQUENCES.get(mask);
+
+    if (fused != null) {
+      return fused;
+    }
+
+    List<Microoperation> microoperations = new ArrayList<>();
+
+    for (int i = SIGNALS.length - 1; i >= 0; i--) {
+      if ((mask >>> i & 1) == 1) {
+        microoperations.add(SIGNALS[i].microoperation());
+      }
+    }
+
+    // Once enough masks have their own class, the rest loop over their parts
+    if (SEQUENCES.size() >= MAX_SEQUENCES) {
+      return Microoperation.sequence(microoperations);
+    }
+
+    fused = Microoperation.fuse(microoperations);
+    Microoperation previous = SEQUENCES.putIfAbsent(mask, fused);
+    return previous == null ? fused : previous;
+  }
+
+  /**
+   * @param computer {@link Computer} whose state determines the active {@link Signal} instances.
+   * @return Integer index of the state of {@code computer} into {@link ControlUnit#MASKS}, or
+   *     {@code -1} if the table does not cover it.
+   */
+  static int key(Computer computer) {
+    int sc = computer.sc();
+    int decoder = computer.decoder().value();
+
+    if (sc < 0 || sc >= TIMES || Integer.bitCount(decoder) > 1) {
+      return -1;
+    }
+
+    int ac = computer.ac().value();
+    int flags =
+        computer.ien().value()
+            | computer.fgi().value() << 1
+            | computer.fgo().value() << 2
+            | computer.e().value() << 3
+            | (computer.dr().value() == 0 ? 1 : 0) << 4
+            | (ac >>> computer.valueSize() - 1 & 1) << 5
+            | (ac == 0 ? 1 : 0) << 6;
+
+    return key(
+        computer.r().value(),
+        sc,
+        decoder == 0 ? 8 : Integer.numberOfTrailingZeros(decoder),
+        computer.i().value(),
+        flags);
+  }
+
+  /**
+   * @param computer {@link Computer} whose state determines the active {@link Signal} instances.
+   * @param key Integer index of the state of {@code computer} into {@link ControlUnit#MASKS}, or
+   *     {@code -1} if the table does not cover it.
+   * @return Mask of the indices in {@link ControlUnit#SIGNALS} which are active for {@code
+   *     computer}.
+   */
+  static long mask(Computer computer, int key) {
+    // States which the table does not cover are decoded by testing every signal
+    if (key < 0) {
+      return mask(computer);
+    }
+
+    long mask = MASKS[key];
+    long[] irMasks = IR_MASKS[key];
+
+    if (irMasks != null) {
+      // Combines the signals enabled by each set bit of IR(0-11)
+      for (int ir = computer.ir().value() & (1 << IR_BITS) - 1; ir != 0; ir &= ir - 1) {
+        mask |= irMasks[Integer.numberOfTrailingZeros(ir)];
+      }
+    }
+
+    return mask;
+  }
+
+  /**
+   * Pushes the {@link Microoperation} instances of the {@link Signal} instances in {@link
+   * Computer#SIGNALS} whose conditions {@code computer} meets onto {@code microoperations} in the
+   * same order as testing every {@link Signal} would.
+   *
+   * @param computer {@link Computer} whose state determines the active {@link Signal} instances.
+   * @param microoperations {@link ArrayDeque} to push the {@link Microoperation} instances onto.
+   */
+  public static void decode(Computer computer, ArrayDeque<Microoperation> microoperations) {
+    for (long mask = mask(computer, key(computer)); mask != 0; mask &= mask - 1) {
+      microoperations.push(SIGNALS[Long.numberOfTrailingZeros(mask)].microoperation());
+    }
+  }
+
+  /**
+   * @param computer {@link Computer} whose state determines the active {@link Signal} instances.
+   * @return {@link Microoperation} which executes the {@link Microoperation} instances {@link
+   *     ControlUnit#decode(Computer, ArrayDeque)} would push in the order they would be polled.
+   */
+  public static Microoperation fuse(Computer computer) {
+    int key = key(computer);
+
+    if (key < 0) {
+      return sequence(mask(computer));
+    }
+
+    Microoperation[] irFused = IR_FUSED[key];
+
+    if (irFused == null) {
+      return FUSED[key];
+    }
+
+    int ir = computer.ir().value() & (1 << IR_BITS) - 1;
+
+    if (ir == 0) {
+      return FUSED[key];
+    }
+
+    // Instructions combining several operations look up their mask instead
+    return Integer.bitCount(ir) == 1
+        ? irFused[Integer.numberOfTrailingZeros(ir)]
+        : sequence(mask(computer, key));
+  }
+}
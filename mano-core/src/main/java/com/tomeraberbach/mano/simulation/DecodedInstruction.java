@@ -0,0 +1,146 @@
+package com.tomeraberbach.mano.simulation;
+
+/**
+ * Class representing an instruction word of Mano's computer after its fetch and decode as detailed
+ * in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>A {@link DecodedInstruction} only depends on its word and address size, so one instance is
+ * shared by every address holding the same word of a {@link Computer#ADDRESS_SIZE} bit address
+ * computer. Words of computers with other address sizes are decoded without being shared.
+ *
+ * <p>The shared instances are published without synchronization, so several computers may run on
+ * different threads. Every field is final, so a thread which reads an instance from the table sees
+ * it fully constructed. A thread which reads {@code null} instead decodes the word again.
+ */
+public class DecodedInstruction {
+  /** The {@link DecodedInstruction} of each word, or {@code null} until it is first decoded. */
+  private static final DecodedInstruction[] INSTANCES =
+      new DecodedInstruction[Computer.maxValue(Computer.VALUE_SIZE) + 1];
+
+  /** The instruction word. */
+  private final int word;
+
+  /** The three bits above the address, IR(12-14), the opcode of the instruction. */
+  private final int opcode;
+
+  /** The most significant bit, IR(15), the indirect bit of the instruction. */
+  private final boolean indirect;
+
+  /** The address bits, IR(0-11), the operand address of a memory-reference instruction. */
+  private final int address;
+
+  /**
+   * @param word The instruction word.
+   * @param addressSize The integer number of bits of the address of the instruction.
+   */
+  private DecodedInstruction(int word, int addressSize) {
+    this.word = word;
+    opcode = word >>> addressSize & 7;
+    indirect = (word >>> addressSize + 3 & 1) == 1;
+    address = word & Computer.maxValue(addressSize);
+  }
+
+  /**
+   * {@code word} must pass {@link Computer#validateValue(int, int)} with {@link
+   * Computer#VALUE_SIZE} or an {@link IllegalArgumentException} is thrown.
+   *
+   * @param word An instruction word.
+   * @return The {@link DecodedInstruction} of {@code word}.
+   */
+  public static DecodedInstruction of(int word) {
+    Computer.validateValue(word, Computer.VALUE_SIZE);
+    DecodedInstruction instruction = INSTANCES[word];
+
+    if (instruction == null) {
+      instruction = new DecodedInstruction(word, Computer.ADDRESS_SIZE);
+      INSTANCES[word] = instruction;
+    }
+
+    return instruction;
+  }
+
+  /**
+   * {@code word} must pass {@link Computer#validateValue(int, int)} with {@code addressSize} plus
+   * four or an {@link IllegalArgumentException} is thrown.
+   *
+   * @param word An instruction word.
+   * @param addressSize The integer number of bits of the address of the instruction.
+   * @return The {@link DecodedInstruction} of {@code word}.
+   */
+  public static DecodedInstruction of(int word, int addressSize) {
+    if (addressSize == Computer.ADDRESS_SIZE) {
+      return of(word);
+    }
+
+    Computer.validateValue(word, addressSize + 4);
+    return new DecodedInstruction(word, addressSize);
+  }
+
+  /**
+   * @return {@link DecodedInstruction#word}.
+   */
+  public int word() {
+    return word;
+  }
+
+  /**
+   * @return {@link DecodedInstruction#opcode}.
+   */
+  public int opcode() {
+    return opcode;
+  }
+
+  /**
+   * @return {@link DecodedInstruction#indirect}.
+   */
+  public boolean indirect() {
+    return indirect;
+  }
+
+  /**
+   * @return {@link DecodedInstruction#address}.
+   */
+  public int address() {
+    return address;
+  }
+
+  /**
+   * @return The value of the decoder after decoding {@link DecodedInstruction#opcode}.
+   */
+  public int decoder() {
+    return 1 << opcode;
+  }
+
+  /**
+   * @return boolean representing if this is a memory-reference instruction.
+   */
+  public boolean memoryReference() {
+    return opcode != 7;
+  }
+
+  /**
+   * @return boolean representing if this is a register-reference instruction.
+   */
+  public boolean registerReference() {
+    return opcode == 7 && !indirect;
+  }
+
+  /**
+   * @return boolean representing if this is an input-output instruction.
+   */
+  public boolean inputOutput() {
+    return opcode == 7 && indirect;
+  }
+
+  /**
+   * @return The bits IR(0-11) selecting the operations of a register-reference or input-output
+   *     instruction, or {@code 0} for a memory-reference instruction.
+   */
+  public int bits() {
+    return memoryReference() ? 0 : address;
+  }
+}
@@ -0,0 +1,34 @@
+package com.tomeraberbach.mano.simulation;
+
+/**
+ * Enumeration of the ways a {@link Computer} can be run with {@link Computer#run(Engine, long)}.
+ */
+public enum Engine {
+  /**
+   * Executes every clock with {@link Computer#clock()}, one fused {@link Microoperation} as decoded
+   * by {@link ControlUnit} at a time. This is the granularity the application runs at.
+   */
+  MICROOPERATION,
+
+  /**
+   * Executes every clock with {@link Computer#latchedClock()}, committing all the transfers of a
+   * clock together at its end as in hardware. Changes to the same {@link Register} within a clock
+   * compose in clock order, so the result is the same as that of {@link Engine#MICROOPERATION}.
+   */
+  LATCH,
+
+  /**
+   * Executes a whole instruction or interrupt cycle per dispatch on primitive state with an {@link
+   * Interpreter}.
+   */
+  INSTRUCTION,
+
+  /**
+   * Executes hot basic blocks compiled to JVM bytecode by a {@link Translator} and interprets the
+   * remaining instructions like {@link Engine#INSTRUCTION}. Loops made of blocks of only one or two
+   * instructions, such as an ISZ counting loop, run slower than on {@link Engine#INSTRUCTION},
+   * since looking up a block and invalidating blocks on each write cost more than those
+   * instructions.
+   */
+  TRANSLATION
+}
@@ -0,0 +1,194 @@
+package com.tomeraberbach.mano.simulation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class representing the contents of {@link RAM} to load Mano's computer with as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>An {@link Image} is what a {@link Computer} is loaded with by {@link Computer#load(Image)}, so
+ * the simulation does not depend on how the image was produced. Only the addresses which are
+ * written to or labelled are stored, so an {@link Image} of a small program for a large address
+ * space stays small.
+ */
+public class Image {
+  /** The address in {@link RAM} where execution of this {@link Image} starts. */
+  private int start;
+
+  /** The integer number of bits the addresses in this {@link Image} support. */
+  private int addressSize;
+
+  /** The integer number of bits the words in this {@link Image} support. */
+  private int valueSize;
+
+  /** Maps each address written to in this {@link Image} to its word. */
+  private Map<Integer, Integer> words;
+
+  /** Maps each address written to in this {@link Image} to the source code of its word. */
+  private Map<Integer, String> sources;
+
+  /** Maps each address labelled in this {@link Image} to its label. */
+  private Map<Integer, String> labels;
+
+  /** The addresses written to in this {@link Image}, in the order they were first written. */
+  private int[] addresses;
+
+  /** The number of addresses in this {@link Image#addresses}. */
+  private int addressCount;
+
+  /** The addresses labelled in this {@link Image}, in the order they were first labelled. */
+  private int[] labelled;
+
+  /** The number of addresses in this {@link Image#labelled}. */
+  private int labelledCount;
+
+  /**
+   * Constructor which is the equivalent of calling {@link Image#Image(int, int, int)} with {@code
+   * start}, {@link Computer#ADDRESS_SIZE}, and {@link Computer#VALUE_SIZE}.
+   *
+   * @param start The address in {@link RAM} where execution of this {@link Image} starts.
+   */
+  public Image(int start) {
+    this(start, Computer.ADDRESS_SIZE, Computer.VALUE_SIZE);
+  }
+
+  /**
+   * Constructor which initializes an empty {@link Image} the size of a {@link RAM} with {@code
+   * addressSize} bit addresses and {@code valueSize} bit values.
+   *
+   * @param start The address in {@link RAM} where execution of this {@link Image} starts.
+   * @param addressSize The integer number of bits the addresses in this {@link Image} support.
+   * @param valueSize The integer number of bits the words in this {@link Image} support.
+   */
+  public Image(int start, int addressSize, int valueSize) {
+    Computer.validateSize(addressSize);
+    Computer.validateSize(valueSize);
+    Computer.validateValue(start, addressSize);
+
+    this.start = start;
+    this.addressSize = addressSize;
+    this.valueSize = valueSize;
+    words = new HashMap<>();
+    sources = new HashMap<>();
+    labels = new HashMap<>();
+    addresses = new int[16];
+    addressCount = 0;
+    labelled = new int[16];
+    labelledCount = 0;
+  }
+
+  /**
+   * @return {@link Image#start}.
+   */
+  public int start() {
+    return start;
+  }
+
+  /**
+   * @return {@link Image#valueSize}.
+   */
+  public int valueSize() {
+    return valueSize;
+  }
+
+  /**
+   * @return Integer representing the maximum address in this {@link Image}.
+   */
+  public int maxAddress() {
+    return Computer.maxValue(addressSize);
+  }
+
+  /**
+   * {@code address} must pass {@link Computer#validateValue(int, int)} with {@link
+   * Image#addressSize} and {@code word} with {@link Image#valueSize} or an {@link
+   * IllegalArgumentException} is thrown.
+   *
+   * @param address Integer address to write to in this {@link Image}.
+   * @param word Integer value to write to {@code address}.
+   * @param source The source code of {@code word}.
+   */
+  public void write(int address, int word, String source) {
+    Computer.validateValue(address, addressSize);
+    Computer.validateValue(word, valueSize);
+
+    if (sources.put(address, source) == null) {
+      if (addressCount == addresses.length) {
+        addresses = Arrays.copyOf(addresses, addressCount * 2);
+      }
+
+      addresses[addressCount++] = address;
+    }
+
+    words.put(address, word);
+  }
+
+  /**
+   * @param address Integer address in this {@link Image}.
+   * @param label The label at {@code address}.
+   */
+  public void label(int address, String label) {
+    Computer.validateValue(address, addressSize);
+
+    if (labels.put(address, label) == null) {
+      if (labelledCount == labelled.length) {
+        labelled = Arrays.copyOf(labelled, labelledCount * 2);
+      }
+
+      labelled[labelledCount++] = address;
+    }
+  }
+
+  /**
+   * @return Array of the addresses written to in this {@link Image}, in the order they were first
+   *     written.
+   */
+  public int[] addresses() {
+    return Arrays.copyOf(addresses, addressCount);
+  }
+
+  /**
+   * @return Array of the addresses labelled in this {@link Image}, in the order they were first
+   *     labelled.
+   */
+  public int[] labelled() {
+    return Arrays.copyOf(labelled, labelledCount);
+  }
+
+  /**
+   * @param address Integer address in this {@link Image}.
+   * @return boolean representing if a word was written to {@code address}.
+   */
+  public boolean written(int address) {
+    return sources.containsKey(address);
+  }
+
+  /**
+   * @param address Integer address in this {@link Image}.
+   * @return The word at {@code address}, or {@code 0} if nothing was written there.
+   */
+  public int word(int address) {
+    return words.getOrDefault(address, 0);
+  }
+
+  /**
+   * @param address Integer address in this {@link Image}.
+   * @return The source code of the word at {@code address}, or {@code null} if nothing was written
+   *     there.
+   */
+  public String source(int address) {
+    return sources.get(address);
+  }
+
+  /**
+   * @param address Integer address in this {@link Image}.
+   * @return The label at {@code address}, or {@code null} if there is none.
+   */
+  public String label(int address) {
+    return labels.get(address);
+  }
+}
@@ -0,0 +1,140 @@
+package com.tomeraberbach.mano.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a cache of the {@link DecodedInstruction} at each address of the {@link RAM}
+ * in Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>An entry is filled the first time its address is fetched from and cleared whenever {@link
+ * RAM#write(int, int)} writes to its address. Each entry is also tagged with the {@link
+ * RAM#epoch()} it was filled in, so clearing the {@link RAM} invalidates every entry without
+ * touching them, and a cached {@link DecodedInstruction} always matches the word in the {@link
+ * RAM}. Entries are kept in pages like those of the {@link RAM}, which are allocated the first time
+ * one of their addresses is fetched from.
+ */
+public class InstructionCache {
+  /** The {@link RAM} this {@link InstructionCache} decodes. */
+  private RAM ram;
+
+  /** Mask of the bits of an address which select an entry within its page. */
+  private static final int PAGE_MASK = (1 << RAM.PAGE_BITS) - 1;
+
+  /** The integer number of bits of the addresses of this {@link InstructionCache#ram}. */
+  private int addressSize;
+
+  /**
+   * The {@link DecodedInstruction} at each address of each page, or {@code null} if it is not
+   * cached or the page has never been fetched from.
+   */
+  private DecodedInstruction[][] instructions;
+
+  /**
+   * The {@link RAM#epoch()} each entry of this {@link InstructionCache#instructions} was filled in.
+   */
+  private int[][] epochs;
+
+  /** The number of fetches which found their {@link DecodedInstruction} cached. */
+  private long hits;
+
+  /** The number of fetches which had to decode their {@link DecodedInstruction}. */
+  private long misses;
+
+  /**
+   * Registers this {@link InstructionCache} as a write listener of {@code ram}.
+   *
+   * @param ram The {@link RAM} this {@link InstructionCache} decodes.
+   */
+  public InstructionCache(RAM ram) {
+    this.ram = ram;
+    addressSize = ram.addressSize();
+    instructions = new DecodedInstruction[(ram.maxAddress() >>> RAM.PAGE_BITS) + 1][];
+    epochs = new int[instructions.length][];
+    hits = 0;
+    misses = 0;
+
+    ram.addWriteListener(this::invalidate);
+    ram.addClearListener(this::clear);
+  }
+
+  /**
+   * @param address Address in this {@link InstructionCache#ram} to fetch from.
+   * @return The {@link DecodedInstruction} of the word at {@code address}.
+   */
+  public DecodedInstruction fetch(int address) {
+    int page = address >>> RAM.PAGE_BITS;
+    int entry = address & PAGE_MASK;
+    DecodedInstruction[] instructions = this.instructions[page];
+
+    if (instructions == null) {
+      instructions = new DecodedInstruction[1 << RAM.PAGE_BITS];
+      this.instructions[page] = instructions;
+      epochs[page] = new int[1 << RAM.PAGE_BITS];
+    }
+
+    DecodedInstruction instruction = instructions[entry];
+    int epoch = ram.epoch();
+
+    if (instruction == null || epochs[page][entry] != epoch) {
+      misses++;
+      instruction = DecodedInstruction.of(ram.read(address), addressSize);
+      instructions[entry] = instruction;
+      epochs[page][entry] = epoch;
+    } else {
+      hits++;
+    }
+
+    return instruction;
+  }
+
+  /**
+   * Clears the entry of {@code address}.
+   *
+   * @param address Address in this {@link InstructionCache#ram} which was written to.
+   */
+  private void invalidate(int address) {
+    DecodedInstruction[] instructions = this.instructions[address >>> RAM.PAGE_BITS];
+
+    if (instructions != null) {
+      instructions[address & PAGE_MASK] = null;
+    }
+  }
+
+  /**
+   * Clears every entry once {@link RAM#epoch()} wraps around, since entries filled that many clears
+   * ago would otherwise look current. Entries are otherwise invalidated by their epoch alone.
+   */
+  private void clear() {
+    if (ram.epoch() == 0) {
+      for (DecodedInstruction[] instructions : this.instructions) {
+        if (instructions != null) {
+          Arrays.fill(instructions, null);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return {@link InstructionCache#hits}.
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * @return {@link InstructionCache#misses}.
+   */
+  public long misses() {
+    return misses;
+  }
+
+  /** Resets {@link InstructionCache#hits} and {@link InstructionCache#misses} to {@code 0}. */
+  public void resetCounters() {
+    hits = 0;
+    misses = 0;
+  }
+}
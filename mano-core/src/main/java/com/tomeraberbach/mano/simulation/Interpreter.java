@@ -0,0 +1,494 @@
+package com.tomeraberbach.mano.simulation;
+
+/**
+ * Class representing an interpreter which executes a whole instruction of Mano's computer per
+ * dispatch as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>The registers are copied out of a {@link Computer} when this {@link Interpreter} is created
+ * and copied back with {@link Interpreter#store()}, while its {@link RAM} is used directly. Both
+ * happen between instructions, when T = 0 and no {@link Microoperation} instances are pending, so
+ * stepping can resume at the microoperation level afterwards. The effect of an instruction is the
+ * same as that of the {@link Microoperation} instances of all its clocks: control functions are
+ * evaluated at the start of a clock, so skips and the interrupt test read the registers as they
+ * were before the clock which changes them.
+ */
+public class Interpreter {
+  /** Mask of the bits of an input or output value. */
+  private static final int IO_MASK = Computer.maxValue(Computer.IO_SIZE);
+
+  /** The integer number of bits of an address of this {@link Interpreter#computer}. */
+  private final int addressSize;
+
+  /** Mask of the bits of an address of this {@link Interpreter#computer}. */
+  private final int addressMask;
+
+  /** Mask of the bits of a value of this {@link Interpreter#computer}. */
+  private final int valueMask;
+
+  /** Index of the sign bit of a value of this {@link Interpreter#computer}. */
+  private final int sign;
+
+  /** The {@link Computer} whose state this {@link Interpreter} executes. */
+  private Computer computer;
+
+  /** The {@link RAM} of this {@link Interpreter#computer}. */
+  private RAM ram;
+
+  /** The {@link InstructionCache} instructions are fetched from. */
+  private InstructionCache cache;
+
+  /**
+   * The {@link Translator} whose blocks this {@link Interpreter} runs where possible, or {@code
+   * null} to interpret every instruction.
+   */
+  private Translator translator;
+
+  /** The result of decoding IR(12-14). */
+  int decoder;
+
+  /** The program counter. */
+  int pc;
+
+  /** The address register. */
+  int ar;
+
+  /** The instruction register. */
+  int ir;
+
+  /** The data register. */
+  int dr;
+
+  /** The accumulator. */
+  int ac;
+
+  /** The temporary register. */
+  int tr;
+
+  /** The input register. */
+  int inpr;
+
+  /** The output register. */
+  int outr;
+
+  /** The indirect addressing flip-flop. */
+  int i;
+
+  /** The interrupt raised flip-flop. */
+  int r;
+
+  /** The interrupt enable flip-flop. */
+  int ien;
+
+  /** The carry bit flip-flop. */
+  int e;
+
+  /** The input flag flip-flop. */
+  int fgi;
+
+  /** The output flag flip-flop. */
+  int fgo;
+
+  /** The stop or go flip-flop. */
+  int s;
+
+  /**
+   * Constructor which is the equivalent of calling {@link Interpreter#Interpreter(Computer,
+   * Translator)} with a {@code null} {@link Translator}.
+   *
+   * @param computer {@link Computer} whose registers are copied into this {@link Interpreter}.
+   */
+  public Interpreter(Computer computer) {
+    this(computer, null);
+  }
+
+  /**
+   * {@code computer} must be between instructions or an {@link IllegalStateException} is thrown.
+   *
+   * @param computer {@link Computer} whose registers are copied into this {@link Interpreter}.
+   * @param translator {@link Translator} of the {@link RAM} of {@code computer} whose blocks will
+   *     be run where possible, or {@code null} to interpret every instruction.
+   */
+  public Interpreter(Computer computer, Translator translator) {
+    if (computer.sc() != 0 || !computer.microoperations().isEmpty()) {
+      throw new IllegalStateException(
+          "Cannot interpret instructions at T" + computer.sc() + " with pending microoperations.");
+    }
+
+    this.computer = computer;
+    this.translator = translator;
+    addressSize = computer.addressSize();
+    addressMask = Computer.maxValue(addressSize);
+    valueMask = Computer.maxValue(computer.valueSize());
+    sign = computer.valueSize() - 1;
+    ram = computer.ram();
+    cache = computer.instructionCache();
+    decoder = computer.decoder().value();
+    pc = computer.pc().value();
+    ar = computer.ar().value();
+    ir = computer.ir().value();
+    dr = computer.dr().value();
+    ac = computer.ac().value();
+    tr = computer.tr().value();
+    inpr = computer.inpr().value();
+    outr = computer.outr().value();
+    i = computer.i().value();
+    r = computer.r().value();
+    ien = computer.ien().value();
+    e = computer.e().value();
+    fgi = computer.fgi().value();
+    fgo = computer.fgo().value();
+    s = computer.s().value();
+  }
+
+  /**
+   * @return boolean representing if the stop or go flip-flop is asserted.
+   */
+  public boolean running() {
+    return s == 1;
+  }
+
+  /**
+   * Executes instructions until the stop or go flip-flop is unasserted or {@code limit}
+   * instructions have been executed.
+   *
+   * @param limit The maximum number of instructions to execute.
+   * @return The number of instructions, counting interrupt cycles, which were executed.
+   */
+  public long run(long limit) {
+    long executed = 0;
+
+    while (executed < limit && s == 1) {
+      // Blocks only run when no interrupt can be raised before their last instruction
+      if (translator != null && r == 0 && (ien == 0 || fgi == 0 && fgo == 0)) {
+        Translator.Block block = translator.block(pc);
+
+        if (block != null && translator.length(pc) <= limit - executed) {
+          executed += block.execute(this);
+          continue;
+        }
+      }
+
+      step();
+      executed++;
+    }
+
+    return executed;
+  }
+
+  /** Executes the next instruction, or an interrupt cycle if the interrupt flip-flop is set. */
+  public void step() {
+    if (r == 1) {
+      interrupt();
+      return;
+    }
+
+    // R <- 1 is tested at the start of T3 and of every later clock, none of which an instruction
+    // changes IEN, FGI or FGO before
+    boolean interrupt = ien == 1 && (fgi == 1 || fgo == 1);
+
+    DecodedInstruction instruction = cache.fetch(pc);
+    fetch(pc, instruction);
+
+    if (instruction.registerReference()) {
+      registerReference(instruction.bits());
+    } else if (instruction.inputOutput()) {
+      inputOutput(instruction.bits());
+    } else {
+      if (instruction.indirect()) {
+        indirect();
+      }
+
+      switch (instruction.opcode()) {
+        case 0:
+          and(ar);
+          break;
+        case 1:
+          add(ar);
+          break;
+        case 2:
+          lda(ar);
+          break;
+        case 3:
+          sta(ar);
+          break;
+        case 4:
+          bun(ar);
+          break;
+        case 5:
+          bsa(ar);
+          break;
+        default:
+          isz(ar);
+          break;
+      }
+    }
+
+    if (interrupt) {
+      r = 1;
+    }
+  }
+
+  /** RT0, RT1, RT2: saves the return address in M[0] and branches to address 1. */
+  void interrupt() {
+    ar = 0;
+    tr = pc;
+    ram.write(ar, tr);
+    pc = 1;
+    ien = 0;
+    r = 0;
+  }
+
+  /**
+   * R'T0, R'T1, R'T2: AR <- PC; IR <- M[AR], PC <- PC + 1; D0, ..., D7 <- Decode IR(12-14), AR <-
+   * IR(0-11), I <- IR(15).
+   *
+   * @param address Address of the instruction, which is the value of the program counter.
+   * @param word The instruction at {@code address}.
+   */
+  void fetch(int address, int word) {
+    ir = word;
+    pc = address + 1 & addressMask;
+    decoder = 1 << (word >>> addressSize & 7);
+    ar = word & addressMask;
+    i = word >>> sign;
+  }
+
+  /**
+   * R'T0, R'T1, R'T2 with the decode of {@code instruction} taken from an {@link InstructionCache}.
+   *
+   * @param address Address of the instruction, which is the value of the program counter.
+   * @param instruction The {@link DecodedInstruction} at {@code address}.
+   */
+  void fetch(int address, DecodedInstruction instruction) {
+    ir = instruction.word();
+    pc = address + 1 & addressMask;
+    decoder = instruction.decoder();
+    ar = instruction.address();
+    i = instruction.indirect() ? 1 : 0;
+  }
+
+  /**
+   * D7'IT3: AR <- M[AR]. If M[AR] is not an address an {@link IllegalArgumentException} is thrown
+   * after the program counter is rewound to the instruction, so that it can be executed again one
+   * clock at a time.
+   */
+  void indirect() {
+    int value = ram.read(ar);
+
+    if (value > addressMask) {
+      pc = pc - 1 & addressMask;
+      Computer.validateValue(value, addressSize);
+    }
+
+    ar = value;
+  }
+
+  /**
+   * AND: DR <- M[AR]; AC <- AC ^ DR.
+   *
+   * @param address Effective address of the operand.
+   */
+  void and(int address) {
+    dr = ram.read(address);
+    ac &= dr;
+  }
+
+  /**
+   * ADD: DR <- M[AR]; AC <- AC + DR, E <- Cout.
+   *
+   * @param address Effective address of the operand.
+   */
+  void add(int address) {
+    dr = ram.read(address);
+    int sum = ac + dr;
+    e = sum >>> sign + 1;
+    ac = sum & valueMask;
+  }
+
+  /**
+   * LDA: DR <- M[AR]; AC <- DR.
+   *
+   * @param address Effective address of the operand.
+   */
+  void lda(int address) {
+    dr = ram.read(address);
+    ac = dr;
+  }
+
+  /**
+   * STA: M[AR] <- AC.
+   *
+   * @param address Effective address of the operand.
+   * @return boolean representing if the write may have changed a block of this {@link
+   *     Interpreter#translator}, in which case a running block must stop.
+   */
+  boolean sta(int address) {
+    boolean translated = translator != null && translator.translated(address);
+    ram.write(address, ac);
+    return translated;
+  }
+
+  /**
+   * BUN: PC <- AR.
+   *
+   * @param address Effective address to branch to.
+   */
+  void bun(int address) {
+    pc = address;
+  }
+
+  /**
+   * BSA: M[AR] <- PC, AR <- AR + 1; PC <- AR.
+   *
+   * @param address Effective address to save the return address at.
+   */
+  void bsa(int address) {
+    ram.write(address, pc);
+    ar = address + 1 & addressMask;
+    pc = ar;
+  }
+
+  /**
+   * ISZ: DR <- M[AR]; DR <- DR + 1; M[AR] <- DR, if (DR = 0) then (PC <- PC + 1).
+   *
+   * @param address Effective address of the operand.
+   */
+  void isz(int address) {
+    dr = ram.read(address) + 1 & valueMask;
+    ram.write(address, dr);
+
+    if (dr == 0) {
+      pc = pc + 1 & addressMask;
+    }
+  }
+
+  /**
+   * D7I'T3: executes the register-reference instruction {@code ir}. Its skip conditions are tested
+   * first, and then its bits are applied in the order {@link ControlUnit} sequences their {@link
+   * Microoperation} instances, which is from the last {@link Signal} in {@link Computer#SIGNALS} to
+   * the first: B0, B5, B6, B7, B8, B9, B10, B11, and finally the skip.
+   *
+   * @param ir Value of the instruction register.
+   */
+  void registerReference(int ir) {
+    boolean skip =
+        (ir & 0x10) != 0 && (ac >>> sign & 1) == 0
+            || (ir & 0x8) != 0 && (ac >>> sign & 1) == 1
+            || (ir & 0x4) != 0 && ac == 0
+            || (ir & 0x2) != 0 && e == 0;
+
+    // HLT
+    if ((ir & 0x1) != 0) {
+      s = 0;
+    }
+
+    // INC
+    if ((ir & 0x20) != 0) {
+      ac = ac + 1 & valueMask;
+    }
+
+    // CIL
+    if ((ir & 0x40) != 0) {
+      int value = ac << 1 & valueMask | e;
+      e = ac >>> sign;
+      ac = value;
+    }
+
+    // CIR
+    if ((ir & 0x80) != 0) {
+      int value = e << sign | ac >>> 1;
+      e = ac & 1;
+      ac = value;
+    }
+
+    // CME
+    if ((ir & 0x100) != 0) {
+      e ^= 1;
+    }
+
+    // CMA
+    if ((ir & 0x200) != 0) {
+      ac = ~ac & valueMask;
+    }
+
+    // CLE
+    if ((ir & 0x400) != 0) {
+      e = 0;
+    }
+
+    // CLA
+    if ((ir & 0x800) != 0) {
+      ac = 0;
+    }
+
+    if (skip) {
+      pc = pc + 1 & addressMask;
+    }
+  }
+
+  /**
+   * D7IT3: executes the input-output instruction {@code ir}. Its skip conditions are tested first,
+   * and then its bits are applied in the order {@link ControlUnit} sequences their {@link
+   * Microoperation} instances: B7, B10, B11, B6, and finally the skip. OUT therefore outputs the
+   * accumulator from before INP, and IOF wins over ION.
+   *
+   * @param ir Value of the instruction register.
+   */
+  void inputOutput(int ir) {
+    boolean skip = (ir & 0x200) != 0 && fgi == 1 || (ir & 0x100) != 0 && fgo == 1;
+
+    // ION
+    if ((ir & 0x80) != 0) {
+      ien = 1;
+    }
+
+    // OUT
+    if ((ir & 0x400) != 0) {
+      fgo = 0;
+      outr = ac & IO_MASK;
+    }
+
+    // INP
+    if ((ir & 0x800) != 0) {
+      fgi = 0;
+      ac = ac & ~IO_MASK | inpr;
+    }
+
+    // IOF
+    if ((ir & 0x40) != 0) {
+      ien = 0;
+    }
+
+    if (skip) {
+      pc = pc + 1 & addressMask;
+    }
+  }
+
+  /**
+   * Copies the registers of this {@link Interpreter} back into its {@link Computer}, leaving it at
+   * T = 0 so it can continue at the microoperation level.
+   */
+  public void store() {
+    computer.sc(0);
+    computer.decoder().load(decoder);
+    computer.pc().load(pc);
+    computer.ar().load(ar);
+    computer.ir().load(ir);
+    computer.dr().load(dr);
+    computer.ac().load(ac);
+    computer.tr().load(tr);
+    computer.inpr().load(inpr);
+    computer.outr().load(outr);
+    computer.i().load(i);
+    computer.r().load(r);
+    computer.ien().load(ien);
+    computer.e().load(e);
+    computer.fgi().load(fgi);
+    computer.fgo().load(fgo);
+    computer.s().load(s);
+  }
+}
@@ -0,0 +1,64 @@
+package com.tomeraberbach.mano.simulation;
+
+import com.tomeraberbach.mano.Utilities;
+
+/**
+ * Class representing memory in {@link RAM} in Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ */
+public class Memory {
+  /** The {@link RAM} this memory location is in. */
+  private final RAM ram;
+
+  /** The address of this memory location in {@link Memory#ram}. */
+  private final int address;
+
+  /**
+   * @param ram The {@link RAM} this memory location is in.
+   * @param address The address of this memory location in {@code ram}.
+   */
+  Memory(RAM ram, int address) {
+    this.ram = ram;
+    this.address = address;
+  }
+
+  /**
+   * @return The label at this memory location if any.
+   */
+  public String getLabel() {
+    return ram.label(address);
+  }
+
+  /**
+   * @return The address of this memory location in hexadecimal, three digits for {@link
+   *     Computer#ADDRESS_SIZE} bit addresses.
+   */
+  public String getAddress() {
+    return Utilities.hex(address, ram.addressDigits());
+  }
+
+  /**
+   * @return The value at this memory location.
+   */
+  public int value() {
+    return ram.read(address);
+  }
+
+  /**
+   * @return The corresponding source code instruction at this memory location if any.
+   */
+  public String getInstruction() {
+    return ram.source(address);
+  }
+
+  /**
+   * @return The value at this memory location in hexadecimal, four digits for {@link
+   *     Computer#VALUE_SIZE} bit values.
+   */
+  public String getHex() {
+    return Utilities.hex(value(), ram.valueDigits());
+  }
+}
@@ -0,0 +1,195 @@
+package com.tomeraberbach.mano.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Class representing a microoperation in Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ */
+public class Microoperation {
+  /** {@link MethodHandles.Lookup} which defines the hidden classes of fused microoperations. */
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /** The internal name of the {@link Consumer} interface. */
+  private static final String CONSUMER = Consumer.class.getName().replace('.', '/');
+
+  /** The internal name of the hidden classes of fused microoperations. */
+  private static final String FUSED =
+      Microoperation.class.getPackageName().replace('.', '/') + "/FusedMicrooperation";
+
+  /** The descriptor of a {@link Consumer} field. */
+  private static final String CONSUMER_DESCRIPTOR = "L" + CONSUMER + ";";
+
+  /** The description of this {@link Microoperation} in register transfer language. */
+  private String description;
+
+  /** The {@link Consumer} which performs a microoperation on a {@link Computer}. */
+  private Consumer<Computer> consumer;
+
+  /**
+   * @param description The description of this {@link Microoperation} in register transfer
+   *     language.
+   * @param consumer The {@link Consumer} which performs a microoperation on a {@link Computer}.
+   */
+  public Microoperation(String description, Consumer<Computer> consumer) {
+    this.description = description;
+    this.consumer = consumer;
+  }
+
+  /**
+   * The returned {@link Microoperation} loops over the {@link Consumer} of each of {@code
+   * microoperations}, saving only the dispatch of each one from a queue. Use {@link
+   * Microoperation#fuse(List)} for sequences which are executed many times.
+   *
+   * @param microoperations {@link List} of {@link Microoperation} instances in execution order.
+   * @return {@link Microoperation} which executes {@code microoperations} in order with one call,
+   *     described by their descriptions separated by commas.
+   */
+  public static Microoperation sequence(List<Microoperation> microoperations) {
+    if (microoperations.size() == 1) {
+      return microoperations.get(0);
+    }
+
+    Microoperation[] parts = microoperations.toArray(new Microoperation[0]);
+
+    return new Microoperation(
+        microoperations.stream().map(Microoperation::toString).collect(Collectors.joining(", ")),
+        computer -> {
+          for (Microoperation part : parts) {
+            part.consumer.accept(computer);
+          }
+        });
+  }
+
+  /**
+   * The returned {@link Microoperation} is straight-line code: a hidden class is defined whose
+   * {@link Consumer#accept(Object)} calls the {@link Consumer} of each of {@code microoperations}
+   * from its own call site, so each call site only ever sees one {@link Consumer} and HotSpot can
+   * inline all of them into one compiled method. Defining a class is expensive, so this is meant
+   * for sequences which are built once and executed many times.
+   *
+   * @param microoperations {@link List} of {@link Microoperation} instances in execution order.
+   * @return {@link Microoperation} which executes {@code microoperations} in order with one call,
+   *     described by their descriptions separated by commas.
+   */
+  static Microoperation fuse(List<Microoperation> microoperations) {
+    if (microoperations.size() == 1) {
+      return microoperations.get(0);
+    }
+
+    Consumer<?>[] consumers = new Consumer<?>[microoperations.size()];
+
+    for (int i = 0; i < consumers.length; i++) {
+      consumers[i] = microoperations.get(i).consumer;
+    }
+
+    Object consumer;
+
+    try {
+      consumer =
+          LOOKUP
+              .defineHiddenClass(compile(consumers.length), true)
+              .lookupClass()
+              .getDeclaredConstructor(Consumer[].class)
+              .newInstance((Object) consumers);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+
+    @SuppressWarnings("unchecked")
+    Consumer<Computer> fused = (Consumer<Computer>) consumer;
+
+    return new Microoperation(
+        microoperations.stream().map(Microoperation::toString).collect(Collectors.joining(", ")),
+        fused);
+  }
+
+  /**
+   * @param length The number of {@link Consumer} instances to call.
+   * @return Bytes of a class file implementing {@link Consumer} whose constructor takes an array of
+   *     {@code length} {@link Consumer} instances and whose {@link Consumer#accept(Object)} calls
+   *     each of them in order.
+   */
+  static byte[] compile(int length) {
+    ClassWriter writer =
+        new ClassWriter(
+            ClassWriter.ACC_PUBLIC | ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER,
+            FUSED,
+            "java/lang/Object",
+            CONSUMER);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream code = new DataOutputStream(bytes);
+
+    try {
+      // public FusedMicrooperation(Consumer[] consumers) { super(); c0 = consumers[0]; ... }
+      code.writeByte(ClassWriter.ALOAD_0);
+      writer.invokeSuper(code, "java/lang/Object");
+
+      for (int i = 0; i < length; i++) {
+        writer.declareField(
+            ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, "c" + i, CONSUMER_DESCRIPTOR);
+        code.writeByte(ClassWriter.ALOAD_0);
+        code.writeByte(ClassWriter.ALOAD_1);
+        writer.push(code, i);
+        code.writeByte(ClassWriter.AALOAD);
+        code.writeByte(ClassWriter.PUTFIELD);
+        code.writeShort(writer.field(FUSED, "c" + i, CONSUMER_DESCRIPTOR));
+      }
+
+      // The stack holds at most the receiver, the array and an index
+      code.writeByte(ClassWriter.RETURN);
+      writer.declareMethod(
+          ClassWriter.ACC_PUBLIC,
+          "<init>",
+          "([" + CONSUMER_DESCRIPTOR + ")V",
+          3,
+          2,
+          bytes.toByteArray());
+
+      // public void accept(Object computer) { c0.accept(computer); ... }
+      bytes.reset();
+
+      for (int i = 0; i < length; i++) {
+        code.writeByte(ClassWriter.ALOAD_0);
+        code.writeByte(ClassWriter.GETFIELD);
+        code.writeShort(writer.field(FUSED, "c" + i, CONSUMER_DESCRIPTOR));
+        code.writeByte(ClassWriter.ALOAD_1);
+        writer.invokeInterface(code, CONSUMER, "accept", "(Ljava/lang/Object;)V", 1);
+      }
+
+      // The stack holds at most a consumer and the computer
+      code.writeByte(ClassWriter.RETURN);
+      writer.declareMethod(
+          ClassWriter.ACC_PUBLIC, "accept", "(Ljava/lang/Object;)V", 2, 2, bytes.toByteArray());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return writer.toByteArray();
+  }
+
+  /**
+   * @param computer {@link Computer} which will be passed into {@link Microoperation#consumer}.
+   */
+  public void execute(Computer computer) {
+    consumer.accept(computer);
+  }
+
+  /**
+   * @return {@link Microoperation#description}.
+   */
+  @Override
+  public String toString() {
+    return description;
+  }
+}
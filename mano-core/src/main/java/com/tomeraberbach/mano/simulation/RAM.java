@@ -0,0 +1,560 @@
+package com.tomeraberbach.mano.simulation;
+
+import com.tomeraberbach.mano.Utilities;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Class representing RAM in Mano's computer as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>The values are kept in pages of 2<sup>{@link RAM#PAGE_BITS}</sup> words, each allocated the
+ * first time one of its addresses is written to, so the memory used grows with the pages a program
+ * touches rather than with the number of addresses. The source code and labels, which only a loaded
+ * program's addresses have, are kept in side tables keyed by address. {@link Memory} views of
+ * addresses are only created when they are requested. The addresses written to since the last
+ * {@link RAM#clean()} are tracked so that a display of this {@link RAM} only has to update those.
+ */
+public class RAM {
+  /** The base two logarithm of the number of words in a page of {@link RAM#pages}. */
+  public static final int PAGE_BITS = 8;
+
+  /** Mask of the bits of an address which select a word within its page. */
+  private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+  /** The number of characters, or bytes, an export buffers before writing them out. */
+  private static final int EXPORT_BUFFER = 1 << 13;
+
+  /** The integer number of bits the addresses in this {@link RAM} support. */
+  private int addressSize;
+
+  /** The integer number of bits the values in this {@link RAM} support. */
+  private int valueSize;
+
+  /**
+   * The values of each page of addresses of this {@link RAM}, or {@code null} if the page has never
+   * been written to. The values of a page are only current if its {@link RAM#epochs} entry is this
+   * {@link RAM#epoch}.
+   */
+  private int[][] pages;
+
+  /**
+   * The {@link RAM#epoch} each page of this {@link RAM#pages} was last written in. The addresses of
+   * a page last written in an earlier epoch hold zero.
+   */
+  private int[] epochs;
+
+  /** The number of pages of this {@link RAM#pages} which have been allocated. */
+  private int allocated;
+
+  /** The number of times this {@link RAM} has been cleared. */
+  private int epoch;
+
+  /** Maps each address of this {@link RAM} with source code to its source code. */
+  private Map<Integer, String> sources;
+
+  /**
+   * The addresses in this {@link RAM#sources}, so that writes can check for source code to clear
+   * without a map lookup.
+   */
+  private BitSet sourced;
+
+  /** Maps each address of this {@link RAM} with a label to its label. */
+  private Map<Integer, String> labels;
+
+  /** The addresses written to since this {@link RAM} was last cleaned or cleared. */
+  private BitSet dirty;
+
+  /** {@link List} of {@link Memory} views of each address of this {@link RAM}. */
+  private List<Memory> values;
+
+  /** {@link IntConsumer} instances notified with the address of every write to this {@link RAM}. */
+  private IntConsumer[] listeners;
+
+  /** {@link Runnable} instances notified of every {@link RAM#clear()} of this {@link RAM}. */
+  private Runnable[] clearListeners;
+
+  /**
+   * boolean representing if writes to this {@link RAM} are held until {@link RAM#commit()} is
+   * called.
+   */
+  private boolean latched;
+
+  /** The addresses of the writes held since {@link RAM#latch()}, in the order they were made. */
+  private int[] pendingAddresses;
+
+  /** The values of the writes held since {@link RAM#latch()}, in the order they were made. */
+  private int[] pendingValues;
+
+  /** The number of writes held since {@link RAM#latch()}. */
+  private int pending;
+
+  /**
+   * Constructor which is the equivalent of calling {@link RAM#RAM(int, int)} arguments {@link
+   * Computer#ADDRESS_SIZE} and {@link Computer#VALUE_SIZE}.
+   */
+  public RAM() {
+    this(Computer.ADDRESS_SIZE, Computer.VALUE_SIZE);
+  }
+
+  /**
+   * {@code addressSize} and {@code valueSize} must pass {@link Computer#validateSize(int)} or an
+   * {@link IllegalArgumentException} is thrown.
+   *
+   * @param addressSize The integer number of bits the addresses in this {@link RAM} support.
+   * @param valueSize The integer number of bits the values in this {@link RAM} support.
+   */
+  public RAM(int addressSize, int valueSize) {
+    Computer.validateSize(valueSize);
+    Computer.validateSize(addressSize);
+
+    this.addressSize = addressSize;
+    this.valueSize = valueSize;
+
+    int size = maxAddress() + 1;
+    pages = new int[(size + PAGE_MASK) >>> PAGE_BITS][];
+    epochs = new int[pages.length];
+    allocated = 0;
+    epoch = 0;
+    sources = new HashMap<>();
+    sourced = new BitSet();
+    labels = new HashMap<>();
+    dirty = new BitSet();
+    values =
+        new AbstractList<>() {
+          @Override
+          public Memory get(int index) {
+            return new Memory(RAM.this, index);
+          }
+
+          @Override
+          public int size() {
+            return size;
+          }
+        };
+    listeners = new IntConsumer[0];
+    clearListeners = new Runnable[0];
+    latched = false;
+    pendingAddresses = new int[1];
+    pendingValues = new int[1];
+    pending = 0;
+  }
+
+  /**
+   * @return {@link RAM#addressSize}.
+   */
+  public int addressSize() {
+    return addressSize;
+  }
+
+  /**
+   * @return {@link RAM#valueSize}.
+   */
+  public int valueSize() {
+    return valueSize;
+  }
+
+  /**
+   * @return Integer representing the maximum unsigned value an address in this {@link RAM} can be.
+   */
+  public int maxAddress() {
+    return Computer.maxValue(addressSize);
+  }
+
+  /**
+   * @return {@link RAM#values}, which creates each {@link Memory} view when it is requested.
+   */
+  public List<Memory> values() {
+    return values;
+  }
+
+  /**
+   * @return {@link RAM#dirty}, which must not be modified and is emptied by {@link RAM#clean()}.
+   */
+  public BitSet dirty() {
+    return dirty;
+  }
+
+  /** Empties {@link RAM#dirty}, so that only later writes are tracked. */
+  public void clean() {
+    if (!dirty.isEmpty()) {
+      dirty = new BitSet();
+    }
+  }
+
+  /**
+   * @param listener {@link IntConsumer} to notify with the address of every subsequent write to
+   *     this {@link RAM}.
+   */
+  public void addWriteListener(IntConsumer listener) {
+    listeners = Arrays.copyOf(listeners, listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+  }
+
+  /**
+   * @param listener {@link IntConsumer} to stop notifying of writes to this {@link RAM}.
+   */
+  public void removeWriteListener(IntConsumer listener) {
+    listeners = Arrays.stream(listeners).filter(l -> l != listener).toArray(IntConsumer[]::new);
+  }
+
+  /**
+   * @param listener {@link Runnable} to notify of every subsequent {@link RAM#clear()} of this
+   *     {@link RAM}, which is not also reported to the write listeners.
+   */
+  public void addClearListener(Runnable listener) {
+    clearListeners = Arrays.copyOf(clearListeners, clearListeners.length + 1);
+    clearListeners[clearListeners.length - 1] = listener;
+  }
+
+  /**
+   * @param listener {@link Runnable} to stop notifying of clears of this {@link RAM}.
+   */
+  public void removeClearListener(Runnable listener) {
+    clearListeners =
+        Arrays.stream(clearListeners).filter(l -> l != listener).toArray(Runnable[]::new);
+  }
+
+  /**
+   * @return {@link RAM#epoch}, which changes every time this {@link RAM} is cleared.
+   */
+  public int epoch() {
+    return epoch;
+  }
+
+  /**
+   * Sets every address of this {@link RAM} to zero with no source code or label without touching
+   * them, by starting a new {@link RAM#epoch} which no page has been written in yet and replacing
+   * the side tables. The pages stay allocated to be reused by later writes. No address is dirty
+   * afterwards, since the clear listeners are notified instead.
+   */
+  public void clear() {
+    pending = 0;
+    clean();
+
+    if (++epoch == 0) {
+      // Wrapped around, so pages last written that many clears ago would look current
+      Arrays.fill(epochs, -1);
+    }
+
+    // Replaces the side tables, since clearing them takes time proportional to their capacity
+    if (!sources.isEmpty()) {
+      sources = new HashMap<>();
+      sourced = new BitSet();
+    }
+
+    if (!labels.isEmpty()) {
+      labels = new HashMap<>();
+    }
+
+    for (Runnable listener : clearListeners) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Clears this {@link RAM} and then writes the words, source code, and labels of {@code image}
+   * without notifying the write listeners or marking the addresses dirty, in time proportional to
+   * the number of addresses {@code image} writes or labels.
+   *
+   * @param image {@link Image} to load this {@link RAM} with, which must have as many addresses as
+   *     this {@link RAM} and values no wider than those of this {@link RAM}.
+   */
+  public void load(Image image) {
+    if (image.maxAddress() != maxAddress()) {
+      throw new IllegalArgumentException(
+          "Expected an image with a maximum address of "
+              + maxAddress()
+              + ", but got "
+              + image.maxAddress()
+              + ".");
+    }
+
+    if (image.valueSize() > valueSize) {
+      throw new IllegalArgumentException(
+          "Expected an image with values of at most "
+              + valueSize
+              + " bits, but got "
+              + image.valueSize()
+              + ".");
+    }
+
+    clear();
+
+    for (int address : image.addresses()) {
+      page(address)[address & PAGE_MASK] = image.word(address);
+      sources.put(address, image.source(address));
+      sourced.set(address);
+    }
+
+    for (int address : image.labelled()) {
+      labels.put(address, image.label(address));
+    }
+  }
+
+  /**
+   * Makes the page of {@code address} current in this {@link RAM#epoch}, allocating it if it has
+   * never been written to and zeroing it if it was last written in an earlier epoch.
+   *
+   * @param address Integer address in this {@link RAM}.
+   * @return The values of the page of {@code address}.
+   */
+  private int[] page(int address) {
+    int index = address >>> PAGE_BITS;
+    int[] page = pages[index];
+
+    if (page == null) {
+      page = new int[1 << PAGE_BITS];
+      pages[index] = page;
+      epochs[index] = epoch;
+      allocated++;
+    } else if (epochs[index] != epoch) {
+      Arrays.fill(page, 0);
+      epochs[index] = epoch;
+    }
+
+    return page;
+  }
+
+  /**
+   * {@code address} and {@code value} must pass {@link RAM#validate(int, int)} or an {@link
+   * IllegalArgumentException} is thrown. {@code address} is marked dirty and every write listener
+   * is notified of it. While latched, the write is held until {@link RAM#commit()} is called.
+   *
+   * @param address Integer address to write to in this {@link RAM}.
+   * @param value Integer value to write to {@code address} in this {@link RAM}.
+   */
+  public void write(int address, int value) {
+    validate(address, value);
+
+    if (latched) {
+      if (pending == pendingAddresses.length) {
+        pendingAddresses = Arrays.copyOf(pendingAddresses, pending * 2);
+        pendingValues = Arrays.copyOf(pendingValues, pending * 2);
+      }
+
+      pendingAddresses[pending] = address;
+      pendingValues[pending] = value;
+      pending++;
+      return;
+    }
+
+    page(address)[address & PAGE_MASK] = value;
+    dirty.set(address);
+
+    if (sourced.get(address)) {
+      sourced.clear(address);
+      sources.remove(address);
+    }
+
+    for (IntConsumer listener : listeners) {
+      listener.accept(address);
+    }
+  }
+
+  /**
+   * Holds every following write to this {@link RAM} until {@link RAM#commit()} is called, so that
+   * reads keep returning the current values in the meantime.
+   */
+  void latch() {
+    latched = true;
+  }
+
+  /** Performs the writes held since {@link RAM#latch()} in the order they were made. */
+  void commit() {
+    latched = false;
+
+    for (int i = 0; i < pending; i++) {
+      write(pendingAddresses[i], pendingValues[i]);
+    }
+
+    pending = 0;
+  }
+
+  /**
+   * Validates that this {@link RAM} has address {@code address} and could hold {@code value}.
+   *
+   * @param address Integer address to test if this {@link RAM} has.
+   * @param value Integer value to test if this {@link RAM} can hold.
+   */
+  private void validate(int address, int value) {
+    validateAddress(address);
+    validateValue(value);
+  }
+
+  /**
+   * Validates that this {@link RAM} has address {@code address}.
+   *
+   * @param address Integer address to test if this {@link RAM} has.
+   */
+  private void validateAddress(int address) {
+    Computer.validateValue(address, addressSize);
+  }
+
+  /**
+   * Validates that this {@link RAM} could hold {@code value}.
+   *
+   * @param value Integer value to test if this {@link RAM} can hold.
+   */
+  private void validateValue(int value) {
+    Computer.validateValue(value, valueSize);
+  }
+
+  /**
+   * {@code address} must pass {@link RAM#validateAddress(int)} or an {@link
+   * IllegalArgumentException} is thrown.
+   *
+   * @param address Integer address to read from in this {@link RAM}.
+   * @return Integer value which is at address {@code address} in this {@link RAM}.
+   */
+  public int read(int address) {
+    validateAddress(address);
+    int index = address >>> PAGE_BITS;
+    int[] page = pages[index];
+    return page != null && epochs[index] == epoch ? page[address & PAGE_MASK] : 0;
+  }
+
+  /**
+   * @param address Integer address in this {@link RAM}.
+   * @return The source code of the value at {@code address}, or an empty {@link String} if there is
+   *     none.
+   */
+  public String source(int address) {
+    validateAddress(address);
+    return sources.getOrDefault(address, "");
+  }
+
+  /**
+   * @param address Integer address in this {@link RAM}.
+   * @return The label at {@code address}, or an empty {@link String} if there is none.
+   */
+  public String label(int address) {
+    validateAddress(address);
+    return labels.getOrDefault(address, "");
+  }
+
+  /**
+   * @return {@link RAM#allocated}.
+   */
+  public int allocated() {
+    return allocated;
+  }
+
+  /**
+   * @return The number of hexadecimal digits needed to represent an address in this {@link RAM}.
+   */
+  public int addressDigits() {
+    return (addressSize + 3) / 4;
+  }
+
+  /**
+   * @return The number of hexadecimal digits needed to represent a value in this {@link RAM}.
+   */
+  public int valueDigits() {
+    return (valueSize + 3) / 4;
+  }
+
+  /**
+   * Writes the {@link RAM#toString()} of this {@link RAM} to {@code writer} through a single reused
+   * buffer, so that the memory used does not grow with the number of addresses.
+   *
+   * @param writer {@link Writer} to write to, which is not flushed or closed.
+   * @throws IOException Occurs when {@code writer} could not be written to.
+   */
+  public void export(Writer writer) throws IOException {
+    int digits = valueDigits();
+    char[] buffer = new char[EXPORT_BUFFER];
+    int length = 0;
+
+    for (int address = 0; address <= maxAddress(); address++) {
+      if (length + digits + 1 > buffer.length) {
+        writer.write(buffer, 0, length);
+        length = 0;
+      }
+
+      if (address > 0) {
+        buffer[length++] = ' ';
+      }
+
+      length = Utilities.hex(read(address), digits, buffer, length);
+    }
+
+    writer.write(buffer, 0, length);
+  }
+
+  /**
+   * Writes the {@link RAM#toString()} of this {@link RAM} to {@code channel} as ASCII through a
+   * single reused buffer, so that the memory used does not grow with the number of addresses.
+   *
+   * @param channel {@link WritableByteChannel} to write to, which is not closed.
+   * @throws IOException Occurs when {@code channel} could not be written to.
+   */
+  public void export(WritableByteChannel channel) throws IOException {
+    int digits = valueDigits();
+    ByteBuffer buffer = ByteBuffer.allocate(EXPORT_BUFFER);
+
+    for (int address = 0; address <= maxAddress(); address++) {
+      if (buffer.remaining() < digits + 1) {
+        drain(buffer, channel);
+      }
+
+      if (address > 0) {
+        buffer.put((byte) ' ');
+      }
+
+      Utilities.hex(read(address), digits, buffer);
+    }
+
+    drain(buffer, channel);
+  }
+
+  /**
+   * Writes the contents of {@code buffer} to {@code channel} and clears it for reuse.
+   *
+   * @param buffer {@link ByteBuffer} whose contents, up to its position, are written.
+   * @param channel {@link WritableByteChannel} to write to.
+   * @throws IOException Occurs when {@code channel} could not be written to.
+   */
+  private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+
+  /**
+   * @return The space delimited {@link String} of the hexadecimal representations, {@link
+   *     RAM#valueDigits()} characters long, of each value in this {@link RAM}.
+   */
+  @Override
+  public String toString() {
+    int digits = valueDigits();
+    char[] chars = new char[(maxAddress() + 1) * (digits + 1) - 1];
+    int length = 0;
+
+    for (int address = 0; address <= maxAddress(); address++) {
+      if (address > 0) {
+        chars[length++] = ' ';
+      }
+
+      length = Utilities.hex(read(address), digits, chars, length);
+    }
+
+    return new String(chars);
+  }
+}
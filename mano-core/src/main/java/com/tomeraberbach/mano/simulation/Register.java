@@ -1,10 +1,6 @@
 package com.tomeraberbach.mano.simulation;
 
 import com.tomeraberbach.mano.Utilities;
-import java.util.stream.IntStream;
-import javafx.beans.binding.StringBinding;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 
 /**
  * Class representing a register in Mano's computer as detailed in:<br>
@@ -17,8 +13,20 @@ public class Register {
   /** The integer number of bits this {@link Register} supports. */
   private int size;
 
+  /** The mask of the {@link Register#size} bits this {@link Register} supports. */
+  private int max;
+
   /** The value currently in this {@link Register}. */
-  private SimpleIntegerProperty value;
+  private int value;
+
+  /**
+   * boolean representing if changes to this {@link Register} are held in {@link Register#next}
+   * until {@link Register#commit()} is called.
+   */
+  private boolean latched;
+
+  /** The value this {@link Register} will hold after {@link Register#commit()} while latched. */
+  private int next;
 
   /**
    * Constructor which is the equivalent of calling {@link Register#Register(int)} with an argument
@@ -38,7 +46,10 @@ public class Register {
     Computer.validateSize(size);
 
     this.size = size;
-    value = new SimpleIntegerProperty(0);
+    max = Computer.maxValue(size);
+    value = 0;
+    latched = false;
+    next = 0;
   }
 
   /**
@@ -51,15 +62,47 @@ public class Register {
   /**
    * @return {@link Register#value}.
    */
-  public SimpleIntegerProperty valueProperty() {
+  public int value() {
     return value;
   }
 
   /**
-   * @return {@link IntegerProperty#get()} of {@link Register#value}.
+   * Sets this {@link Register#value} without validation. While latched, {@link Register#next} is
+   * set instead.
+   *
+   * @param value Integer value to set this {@link Register#value} to.
    */
-  public int value() {
-    return value.get();
+  private void set(int value) {
+    if (latched) {
+      next = value;
+      return;
+    }
+
+    this.value = value;
+  }
+
+  /**
+   * @return {@link Register#next} while latched, or {@link Register#value} otherwise, which is the
+   *     value a change to this {@link Register} builds on.
+   */
+  private int current() {
+    return latched ? next : value;
+  }
+
+  /**
+   * Holds every following change to this {@link Register} until {@link Register#commit()} is
+   * called, so that it keeps reading as its current value in the meantime. Each change builds on
+   * the one before it, so several changes in a row have the same result as when not latched.
+   */
+  void latch() {
+    latched = true;
+    next = value;
+  }
+
+  /** Sets this {@link Register#value} to the last change made since {@link Register#latch()}. */
+  void commit() {
+    latched = false;
+    set(next);
   }
 
   /**
@@ -74,13 +117,7 @@ public class Register {
     Computer.validateDigit(a, size);
     Computer.validateDigit(b, size);
 
-    int value = 0;
-
-    for (int i = a; i <= b; i++) {
-      value += value(i) ? Math.pow(2, i - a) : 0;
-    }
-
-    return value;
+    return b < a ? 0 : value >>> a & Computer.maxValue(b - a + 1);
   }
 
   /**
@@ -93,41 +130,7 @@ public class Register {
    */
   public boolean value(int digit) {
     Computer.validateDigit(digit, size);
-    return Computer.bit(digit, value.get());
-  }
-
-  /**
-   * @return {@link StringBinding} representing {@link Register#value} as a hexadecimal {@link
-   *     String}.
-   */
-  public StringBinding hexadecimalStringBinding() {
-    return new StringBinding() {
-      {
-        super.bind(value);
-      }
-
-      @Override
-      protected String computeValue() {
-        return Utilities.hex(value.get(), size / 4);
-      }
-    };
-  }
-
-  /**
-   * @return {@link StringBinding} representing {@link Register#value} as character {@link String}.
-   */
-  public StringBinding characterStringBinding() {
-    return new StringBinding() {
-      {
-        super.bind(value);
-      }
-
-      @Override
-      protected String computeValue() {
-        int v = value.get();
-        return v == 0 ? "" : String.valueOf((char) v);
-      }
-    };
+    return Computer.bit(digit, value);
   }
 
   /** Loads this {@link Register} with {@code 0}. */
@@ -143,7 +146,7 @@ public class Register {
    */
   public void load(int value) {
     validate(value);
-    this.value.setValue(value);
+    set(value);
   }
 
   /**
@@ -163,14 +166,12 @@ public class Register {
    */
   public void and(int value) {
     validate(value);
-    this.value.setValue(this.value.get() & value);
+    set(current() & value);
   }
 
   /** Complements this {@link Register}. */
   public void complement() {
-    boolean[] bits = new boolean[size];
-    IntStream.range(0, size).sequential().forEach(i -> bits[i] = !value(i));
-    load(Computer.value(bits));
+    set(~current() & max);
   }
 
   /**
@@ -182,15 +183,16 @@ public class Register {
    */
   public void add(int value, Register e) {
     validate(value);
-    e.value.setValue(this.value.get() + value > max() ? 1 : 0);
-    this.value.setValue((this.value.get() + value) % (max() + 1));
+    int sum = current() + value;
+    e.set(sum > max ? 1 : 0);
+    set(sum & max);
   }
 
   /**
    * @return Integer representing the maximum unsigned value this {@link Register} can hold.
    */
   public int max() {
-    return Computer.maxValue(size);
+    return max;
   }
 
   /** Increments this {@link Register}. */
@@ -206,7 +208,7 @@ public class Register {
    */
   public void add(int value) {
     validate(value);
-    this.value.setValue((this.value.get() + value) % (max() + 1));
+    set(current() + value & max);
   }
 
   /**
@@ -217,14 +219,9 @@ public class Register {
    *     bit will be loaded into the first bit of this {@link Register}.
    */
   public void shiftLeft(Register e) {
-    int value = e.value.get();
-
-    for (int i = 0; i < size - 1; i++) {
-      value += value(i) ? Math.pow(2, i + 1.0) : 0;
-    }
-
-    e.value.setValue(value(size - 1) ? 1 : 0);
-    this.value.setValue(value);
+    int value = current() << 1 & max | e.current();
+    e.set(current() >>> size - 1 & 1);
+    set(value);
   }
 
   /**
@@ -235,21 +232,17 @@ public class Register {
    *     bit will be loaded into the last bit of this {@link Register}.
    */
   public void shiftRight(Register e) {
-    int value = e.value.get() * (int) Math.pow(2, size - 1.0);
-
-    for (int i = 1; i < size; i++) {
-      value += value(i) ? Math.pow(2, i - 1.0) : 0;
-    }
-
-    e.value.setValue(value(0) ? 1 : 0);
-    this.value.setValue(value);
+    int value = e.current() << size - 1 | current() >>> 1;
+    e.set(current() & 1);
+    set(value);
   }
 
   /**
-   * @return The four character hexadecimal representation of this {@link Register#value}.
+   * @return The hexadecimal representation of this {@link Register#value} with as many digits as
+   *     {@link Register#size} bits take up.
    */
   @Override
   public String toString() {
-    return Utilities.hex(value.get(), 4);
+    return Utilities.hex(value, (size + 3) / 4);
   }
 }
@@ -0,0 +1,398 @@
+package com.tomeraberbach.mano.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+
+/**
+ * Class representing a dynamic binary translator which compiles the {@link RAM} of Mano's computer
+ * into JVM bytecode as detailed in:<br>
+ * Computer System Architecture, 3rd edition<br>
+ * By M. Morris Mano<br>
+ * Published by Prentice-Hall, c 1993<br>
+ * Chapter 5, pp 123-172.
+ *
+ * <p>Once an address has been dispatched to by an {@link Interpreter} {@link Translator#THRESHOLD}
+ * times, the basic block starting there is compiled into a hidden class whose {@link
+ * Block#execute(Interpreter)} calls the {@link Interpreter} method of each instruction with its
+ * operands as constants, so HotSpot can inline and compile the guest code. A block ends after a
+ * BUN, BSA, ISZ, skip, HLT or input-output instruction, since those either branch or are followed
+ * by an interrupt check. Every write to a translated address invalidates the blocks containing it,
+ * and a block stops after a STA which writes translated code. Addresses whose blocks are not
+ * compiled yet, or keep being invalidated, are left to the {@link Interpreter}. Clearing the {@link
+ * RAM} discards every block and count the next time a block is looked up.
+ */
+public class Translator {
+  /** The number of dispatches to an address after which its block is compiled. */
+  private static final int THRESHOLD = 16;
+
+  /** The number of invalidations of a block after which its address is no longer compiled. */
+  private static final int INVALIDATIONS = 8;
+
+  /** The maximum number of instructions in a block. */
+  private static final int MAX_LENGTH = 64;
+
+  /**
+   * The maximum depth of the operand stack of {@link Block#execute(Interpreter)}, which is reached
+   * by pushing the {@link Interpreter} and the two operands of {@link Interpreter#fetch(int, int)}.
+   */
+  private static final int EXECUTE_MAX_STACK = 3;
+
+  /** The internal name of the {@link Interpreter} class. */
+  private static final String INTERPRETER = Interpreter.class.getName().replace('.', '/');
+
+  /** {@link MethodHandles.Lookup} which defines the hidden classes of blocks. */
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /** Compiled code for a sequence of instructions. */
+  interface Block {
+    /**
+     * Executes the instructions of this {@link Block} on {@code interpreter}, which must be about
+     * to fetch its first instruction with no interrupt pending.
+     *
+     * @param interpreter {@link Interpreter} whose state the instructions execute on.
+     * @return The number of instructions which were executed.
+     */
+    int execute(Interpreter interpreter);
+  }
+
+  /** The state of a page of addresses like those of the {@link RAM}. */
+  private static class Page {
+    /** The {@link Block} starting at each address, or {@code null} if there is none. */
+    private final Block[] blocks = new Block[1 << RAM.PAGE_BITS];
+
+    /** The number of instructions of the {@link Block} starting at each address. */
+    private final int[] lengths = new int[1 << RAM.PAGE_BITS];
+
+    /** The number of {@link Block} instances which contain each address. */
+    private final int[] coverage = new int[1 << RAM.PAGE_BITS];
+
+    /**
+     * The number of dispatches to each address which has no {@link Block}, or a negative number if
+     * the address is no longer compiled.
+     */
+    private final int[] hits = new int[1 << RAM.PAGE_BITS];
+
+    /** The number of times the {@link Block} starting at each address has been invalidated. */
+    private final int[] invalidations = new int[1 << RAM.PAGE_BITS];
+  }
+
+  /** Mask of the bits of an address which select an entry within its {@link Page}. */
+  private static final int PAGE_MASK = (1 << RAM.PAGE_BITS) - 1;
+
+  /** The {@link RAM} this {@link Translator} compiles. */
+  private RAM ram;
+
+  /**
+   * The {@link Page} of each page of addresses, or {@code null} if none of its addresses has been
+   * dispatched to or compiled.
+   */
+  private Page[] pages;
+
+  /** boolean representing if the {@link RAM} was cleared since the last lookup of a block. */
+  private boolean cleared;
+
+  /** boolean representing if any block has been looked up since the state was last discarded. */
+  private boolean used;
+
+  /**
+   * Registers this {@link Translator} as a write and clear listener of {@code ram}.
+   *
+   * @param ram The {@link RAM} this {@link Translator} compiles.
+   */
+  public Translator(RAM ram) {
+    this.ram = ram;
+
+    pages = new Page[(ram.maxAddress() >>> RAM.PAGE_BITS) + 1];
+    cleared = false;
+    used = false;
+
+    ram.addWriteListener(this::invalidate);
+    ram.addClearListener(() -> cleared = true);
+  }
+
+  /**
+   * Counts a dispatch to {@code address} and compiles its {@link Block} if it has become hot.
+   *
+   * @param address Address an {@link Interpreter} is about to fetch from.
+   * @return {@link Block} starting at {@code address}, or {@code null} if it is not compiled.
+   */
+  Block block(int address) {
+    if (cleared) {
+      discard();
+    }
+
+    used = true;
+    Page page = page(address);
+    int entry = address & PAGE_MASK;
+    Block block = page.blocks[entry];
+
+    if (block == null && page.hits[entry] >= 0 && ++page.hits[entry] >= THRESHOLD) {
+      block = translate(address);
+    }
+
+    return block;
+  }
+
+  /**
+   * @param address Address in this {@link Translator#ram}.
+   * @return The {@link Page} of {@code address}, which is allocated if it does not exist yet.
+   */
+  private Page page(int address) {
+    Page page = pages[address >>> RAM.PAGE_BITS];
+
+    if (page == null) {
+      page = new Page();
+      pages[address >>> RAM.PAGE_BITS] = page;
+    }
+
+    return page;
+  }
+
+  /**
+   * @param address Address a {@link Block} starts at.
+   * @return The number of instructions of the {@link Block} starting at {@code address}.
+   */
+  int length(int address) {
+    return pages[address >>> RAM.PAGE_BITS].lengths[address & PAGE_MASK];
+  }
+
+  /**
+   * @param address Address in this {@link Translator#ram}.
+   * @return boolean representing if a {@link Block} contains {@code address}.
+   */
+  public boolean translated(int address) {
+    Page page = pages[address >>> RAM.PAGE_BITS];
+    return !cleared && page != null && page.coverage[address & PAGE_MASK] > 0;
+  }
+
+  /**
+   * Discards every {@link Block} and count after the {@link RAM} was cleared, which only touches
+   * the arrays if a block was looked up since they were last discarded.
+   */
+  private void discard() {
+    cleared = false;
+
+    if (used) {
+      used = false;
+      Arrays.fill(pages, null);
+    }
+  }
+
+  /** Discards every {@link Block} and count now, rather than the next time a block is looked up. */
+  void reset() {
+    cleared = false;
+    used = false;
+    Arrays.fill(pages, null);
+  }
+
+  /**
+   * Discards every {@link Block} which contains {@code address}.
+   *
+   * @param address Address in this {@link Translator#ram} which was written to.
+   */
+  private void invalidate(int address) {
+    if (!translated(address)) {
+      return;
+    }
+
+    for (int start = Math.max(0, address - MAX_LENGTH + 1); start <= address; start++) {
+      Page page = pages[start >>> RAM.PAGE_BITS];
+      int entry = start & PAGE_MASK;
+
+      if (page != null && page.blocks[entry] != null && start + page.lengths[entry] > address) {
+        cover(start, page.lengths[entry], -1);
+
+        page.blocks[entry] = null;
+        page.lengths[entry] = 0;
+        page.hits[entry] = ++page.invalidations[entry] < INVALIDATIONS ? 0 : -1;
+      }
+    }
+  }
+
+  /**
+   * Adds {@code delta} to the number of {@link Block} instances which contain each of the {@code
+   * length} addresses starting at {@code address}.
+   *
+   * @param address Address of the first instruction of a {@link Block}.
+   * @param length The number of instructions of the {@link Block}.
+   * @param delta The change in the number of {@link Block} instances containing each address.
+   */
+  private void cover(int address, int length, int delta) {
+    for (int i = address; i < address + length; i++) {
+      page(i).coverage[i & PAGE_MASK] += delta;
+    }
+  }
+
+  /**
+   * Compiles the block starting at {@code address}. If compilation fails the address is no longer
+   * compiled.
+   *
+   * @param address Address of the first instruction of the block.
+   * @return {@link Block} starting at {@code address}, or {@code null} if compilation failed.
+   */
+  private Block translate(int address) {
+    int[] words = new int[MAX_LENGTH];
+    int length = 0;
+
+    while (length < MAX_LENGTH && address + length <= ram.maxAddress()) {
+      int word = ram.read(address + length);
+      words[length++] = word;
+
+      if (terminates(word, ram.addressSize())) {
+        break;
+      }
+    }
+
+    Block block;
+
+    try {
+      Class<?> type =
+          LOOKUP
+              .defineHiddenClass(
+                  compile(address, Arrays.copyOf(words, length), ram.addressSize()), true)
+              .lookupClass();
+      block = (Block) type.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      page(address).hits[address & PAGE_MASK] = -1;
+      return null;
+    }
+
+    Page page = page(address);
+    page.blocks[address & PAGE_MASK] = block;
+    page.lengths[address & PAGE_MASK] = length;
+    cover(address, length, 1);
+
+    return block;
+  }
+
+  /**
+   * @param word An instruction.
+   * @param addressSize The integer number of bits of the address of {@code word}.
+   * @return boolean representing if {@code word} must be the last instruction of a block.
+   */
+  private static boolean terminates(int word, int addressSize) {
+    int opcode = word >>> addressSize & 7;
+
+    if (opcode == 7) {
+      // Input-output instructions and register-reference skips and halts
+      return word >>> addressSize + 3 == 1 || (word & 0x1F) != 0;
+    }
+
+    // BUN, BSA, ISZ
+    return opcode >= 4;
+  }
+
+  /**
+   * @param address Address of the first instruction of {@code words}.
+   * @param words The instructions of the block.
+   * @param addressSize The integer number of bits of the address of each of {@code words}.
+   * @return Bytes of a class file implementing {@link Block} for {@code words}.
+   */
+  static byte[] compile(int address, int[] words, int addressSize) {
+    ClassWriter writer =
+        new ClassWriter(
+            ClassWriter.ACC_PUBLIC | ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER,
+            Translator.class.getPackageName().replace('.', '/') + "/TranslatedBlock",
+            "java/lang/Object",
+            Block.class.getName().replace('.', '/'));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream code = new DataOutputStream(bytes);
+
+    try {
+      for (int n = 0; n < words.length; n++) {
+        int word = words[n];
+        int opcode = word >>> addressSize & 7;
+        boolean indirect = word >>> addressSize + 3 == 1;
+
+        // interpreter.fetch(address, word)
+        code.writeByte(ClassWriter.ALOAD_1);
+        writer.push(code, address + n);
+        writer.push(code, word);
+        writer.invoke(code, INTERPRETER, "fetch", "(II)V");
+
+        if (opcode == 7) {
+          // interpreter.registerReference(word) or interpreter.inputOutput(word)
+          code.writeByte(ClassWriter.ALOAD_1);
+          writer.push(code, word);
+          writer.invoke(code, INTERPRETER, indirect ? "inputOutput" : "registerReference", "(I)V");
+          continue;
+        }
+
+        code.writeByte(ClassWriter.ALOAD_1);
+
+        if (indirect) {
+          // interpreter.indirect() followed by the operation on interpreter.ar
+          code.writeByte(ClassWriter.ALOAD_1);
+          writer.invoke(code, INTERPRETER, "indirect", "()V");
+          code.writeByte(ClassWriter.ALOAD_1);
+          code.writeByte(ClassWriter.GETFIELD);
+          code.writeShort(writer.field(INTERPRETER, "ar", "I"));
+        } else {
+          writer.push(code, word & Computer.maxValue(addressSize));
+        }
+
+        switch (opcode) {
+          case 0:
+            writer.invoke(code, INTERPRETER, "and", "(I)V");
+            break;
+          case 1:
+            writer.invoke(code, INTERPRETER, "add", "(I)V");
+            break;
+          case 2:
+            writer.invoke(code, INTERPRETER, "lda", "(I)V");
+            break;
+          case 3:
+            // if (interpreter.sta(operand)) return n + 1
+            writer.invoke(code, INTERPRETER, "sta", "(I)Z");
+            code.writeByte(ClassWriter.IFEQ);
+            // Branches over the sipush and ireturn of the count
+            code.writeShort(ClassWriter.IFEQ_LENGTH + ClassWriter.SIPUSH_LENGTH + 1);
+            writer.push(code, n + 1);
+            code.writeByte(ClassWriter.IRETURN);
+            break;
+          case 4:
+            writer.invoke(code, INTERPRETER, "bun", "(I)V");
+            break;
+          case 5:
+            writer.invoke(code, INTERPRETER, "bsa", "(I)V");
+            break;
+          default:
+            writer.invoke(code, INTERPRETER, "isz", "(I)V");
+            break;
+        }
+      }
+
+      // return words.length
+      writer.push(code, words.length);
+      code.writeByte(ClassWriter.IRETURN);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    writer.declareMethod(
+        ClassWriter.ACC_PUBLIC,
+        "execute",
+        "(L" + INTERPRETER + ";)I",
+        EXECUTE_MAX_STACK,
+        2,
+        bytes.toByteArray());
+
+    // public TranslatedBlock() { super(); }
+    bytes.reset();
+
+    try {
+      code.writeByte(ClassWriter.ALOAD_0);
+      writer.invokeSuper(code, "java/lang/Object");
+      code.writeByte(ClassWriter.RETURN);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    writer.declareMethod(ClassWriter.ACC_PUBLIC, "<init>", "()V", 1, 1, bytes.toByteArray());
+    return writer.toByteArray();
+  }
+}
@@ -0,0 +1,5 @@
+/** Headless simulation of Mano's basic computer, with no dependencies outside the JDK. */
+module com.tomeraberbach.mano.core {
+  exports com.tomeraberbach.mano;
+  exports com.tomeraberbach.mano.simulation;
+}
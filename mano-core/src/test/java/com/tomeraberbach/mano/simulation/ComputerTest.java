@@ -0,0 +1,96 @@
+package com.tomeraberbach.mano.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+/** Tests of {@link Computer}. */
+public class ComputerTest {
+  /**
+   * A loop of memory-reference instructions, direct and indirect, and register-reference
+   * instructions which exercise every operation of the ALU.
+   */
+  static final int[] LOOP = {
+    0x2010, // 000 LDA 010
+    0x1011, // 001 ADD 011
+    0x0012, // 002 AND 012
+    0x3013, // 003 STA 013
+    0x7200, // 004 CMA
+    0x7040, // 005 CIL
+    0x7080, // 006 CIR
+    0x7020, // 007 INC
+    0x6014, // 008 ISZ 014
+    0x5020, // 009 BSA 020
+    0x4000, // 00A BUN 000
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x1234, // 010
+    0xFEDC, // 011
+    0x0FF0, // 012
+    0x0000, // 013
+    0xFF00, // 014
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000, // 020
+    0xC020 // 021 BUN 020 I
+  };
+
+  /** The number of clocks to execute before measuring, so that the hot path is compiled. */
+  private static final int WARMUP = 1_000_000;
+
+  /** The number of clocks to measure. */
+  private static final int CLOCKS = 1_000_000;
+
+  /**
+   * @return {@link Computer} running {@link ComputerTest#LOOP} from address 0.
+   */
+  private static Computer loop() {
+    Computer computer = new Computer();
+
+    for (int address = 0; address < LOOP.length; address++) {
+      computer.ram().write(address, LOOP[address]);
+    }
+
+    computer.s().load(1);
+    return computer;
+  }
+
+  /** Once compiled, executing clocks with {@link Computer#clock()} allocates nothing. */
+  @Test
+  public void clockDoesNotAllocate() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    Computer computer = loop();
+
+    for (int clock = 0; clock < WARMUP; clock++) {
+      computer.clock();
+    }
+
+    threads.getThreadAllocatedBytes(thread);
+    long before = threads.getThreadAllocatedBytes(thread);
+
+    for (int clock = 0; clock < CLOCKS; clock++) {
+      computer.clock();
+    }
+
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    // Allows for the bookkeeping of the measurement itself, but not for a byte per clock
+    assertTrue(
+        allocated < CLOCKS / 100, allocated + " bytes were allocated by " + CLOCKS + " clocks.");
+  }
+}
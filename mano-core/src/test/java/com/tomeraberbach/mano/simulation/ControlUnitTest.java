@@ -0,0 +1,118 @@
+package com.tomeraberbach.mano.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests of the decode table of {@link ControlUnit}. */
+public class ControlUnitTest {
+  /** Values of the data register covering (DR)' and its complement. */
+  private static final int[] DR = {0, 1, 0xFFFF};
+
+  /** Values of the accumulator covering AC(15), (AC)' and their complements. */
+  private static final int[] AC = {0, 1, 0x7FFF, 0x8000, 0xFFFF};
+
+  /** Values of the instruction register for states in which IR(0-11) is not read. */
+  private static final int[] IR = {0, 0x5A5A, 0xFFFF};
+
+  /**
+   * Every state the table covers, and some it does not, decodes to the same {@link Signal}
+   * instances as testing every {@link Signal} of {@link Computer#SIGNALS}. Every value of IR(0-11)
+   * is swept in the register-reference and input-output states.
+   */
+  @Test
+  public void tableMatchesScan() {
+    Computer computer = new Computer();
+
+    for (int r = 0; r < 2; r++) {
+      // SC values of 8 and above and a decoder with two outputs asserted fall outside the table
+      for (int sc = 0; sc < 10; sc++) {
+        for (int d = 0; d <= 9; d++) {
+          int decoder = d < 8 ? 1 << d : d == 8 ? 0 : 0b11;
+
+          for (int i = 0; i < 2; i++) {
+            for (int flags = 0; flags < 16; flags++) {
+              for (int dr : DR) {
+                for (int ac : AC) {
+                  computer.r().load(r);
+                  computer.sc(sc);
+                  computer.decoder().load(decoder);
+                  computer.i().load(i);
+                  computer.ien().load(flags & 1);
+                  computer.fgi().load(flags >> 1 & 1);
+                  computer.fgo().load(flags >> 2 & 1);
+                  computer.e().load(flags >> 3 & 1);
+                  computer.dr().load(dr);
+                  computer.ac().load(ac);
+
+                  if (d == 7 && sc == 3) {
+                    for (int ir = 0; ir < 1 << 12; ir++) {
+                      assertMasks(computer, ir);
+                    }
+                  } else {
+                    for (int ir : IR) {
+                      assertMasks(computer, ir);
+                    }
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * The fused {@link Microoperation} of every register-reference state executes the same {@link
+   * Microoperation} instances as decoding does in the order they would be polled, and is built once
+   * for each combination of IR(0-11).
+   */
+  @Test
+  public void fusedMatchesDecode() {
+    Computer computer = new Computer();
+    computer.sc(3);
+    computer.decoder().load(1 << 7);
+
+    for (int ir = 0; ir < 1 << 12; ir++) {
+      computer.ir().load(ir);
+      ArrayDeque<Microoperation> microoperations = new ArrayDeque<>();
+      ControlUnit.decode(computer, microoperations);
+      List<String> descriptions = new ArrayList<>();
+
+      while (!microoperations.isEmpty()) {
+        descriptions.add(microoperations.poll().toString());
+      }
+
+      Microoperation fused = ControlUnit.fuse(computer);
+      assertEquals(String.join(", ", descriptions), fused.toString());
+      assertSame(fused, ControlUnit.fuse(computer));
+    }
+  }
+
+  /**
+   * @param computer {@link Computer} whose state other than the instruction register is loaded.
+   * @param ir Value to load into the instruction register of {@code computer}.
+   */
+  private static void assertMasks(Computer computer, int ir) {
+    computer.ir().load(ir);
+    assertEquals(
+        ControlUnit.mask(computer),
+        ControlUnit.mask(computer, ControlUnit.key(computer)),
+        () ->
+            "R="
+                + computer.r().value()
+                + " SC="
+                + computer.sc()
+                + " D="
+                + computer.decoder().value()
+                + " I="
+                + computer.i().value()
+                + " IR="
+                + Integer.toHexString(ir));
+  }
+}
@@ -0,0 +1,470 @@
+package com.tomeraberbach.mano.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.BitSet;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests which check that every {@link Engine} leaves a {@link Computer} in the same
+ * state as {@link Engine#MICROOPERATION}, which executes the {@link Microoperation} instances
+ * exactly as {@link ControlUnit} decodes them.
+ */
+public class EngineTest {
+  /** The address instructions under test are placed at. */
+  private static final int ORIGIN = 0x100;
+
+  /** Values of the accumulator covering zero, positive, negative, and all ones. */
+  private static final int[] AC = {0, 0x1234, 0x8000, 0xFFFF};
+
+  /** The value of the input register while instructions under test execute. */
+  private static final int INPR = 'A';
+
+  /**
+   * The register-reference instruction with no operation bits set, which only ends its instruction
+   * cycle.
+   */
+  private static final int NOP = 0x7000;
+
+  /** The instruction which branches to {@link EngineTest#ORIGIN}. */
+  private static final int LOOP = 0x4000 | ORIGIN;
+
+  /**
+   * The number of instructions to run a loop for, which is enough for its block to be translated
+   * and then executed several times.
+   */
+  private static final int LOOP_INSTRUCTIONS = 128;
+
+  /**
+   * A loop which calls a subroutine and then swaps its first instruction between CMA and CIL, so
+   * that translated code is written to on every iteration.
+   */
+  private static final int[] SELF_MODIFYING = {
+    0x2020, // 000 LDA 020
+    0x5010, // 001 BSA 010
+    0x3020, // 002 STA 020
+    0x2011, // 003 LDA 011
+    0x3022, // 004 STA 022
+    0x2021, // 005 LDA 021
+    0x3011, // 006 STA 011
+    0x2022, // 007 LDA 022
+    0x3021, // 008 STA 021
+    0x4000, // 009 BUN 000
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000, // 010
+    0x7200, // 011 CMA
+    0x7020, // 012 INC
+    0xC010, // 013 BUN 010 I
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x0000,
+    0x1234, // 020
+    0x7040, // 021 CIL
+    0x0000 // 022
+  };
+
+  /**
+   * A counting loop at address 100 which enables interrupts and whose service routine echoes each
+   * input character to the output.
+   */
+  private static final int[] INTERRUPTS = {
+    0xF080, // 100 ION
+    0x2113, // 101 LDA 113
+    0x7020, // 102 INC
+    0x3113, // 103 STA 113
+    0x4101, // 104 BUN 101
+    0x3111, // 105 STA 111
+    0xF200, // 106 SKI
+    0x410A, // 107 BUN 10A
+    0xF800, // 108 INP
+    0x3112, // 109 STA 112
+    0xF100, // 10A SKO
+    0x410E, // 10B BUN 10E
+    0x2112, // 10C LDA 112
+    0xF400, // 10D OUT
+    0x2111, // 10E LDA 111
+    0xF080, // 10F ION
+    0xC000, // 110 BUN 000 I
+    0x0000, // 111
+    0x0000, // 112
+    0x0000 // 113
+  };
+
+  /**
+   * A loop which loads through a pointer it increments each time, until the pointer is no longer an
+   * address after 32 iterations and the indirect load fails.
+   */
+  private static final int[] FAILING = {
+    0x7200, // 100 CMA
+    0x3180, // 101 STA 180
+    0xA183, // 102 LDA 183 I
+    0x6183, // 103 ISZ 183
+    0x4100, // 104 BUN 100
+  };
+
+  /** The number of instructions each run of a whole program is split into chunks of, in turn. */
+  private static final int[] CHUNKS = {1, 7, 64, 3, 200, 2, 31};
+
+  /** The number of chunks a whole program is run for. */
+  private static final int RUNS = 400;
+
+  /**
+   * Every register-reference instruction, including those combining several operations, executes
+   * the same on {@link Engine#INSTRUCTION} as on {@link Engine#MICROOPERATION}.
+   */
+  @Test
+  public void registerReferenceInstructionMatchesMicrooperation() {
+    for (int word = 0x7000; word <= 0x7FFF; word++) {
+      assertSingleInstruction(Engine.INSTRUCTION, word);
+    }
+  }
+
+  /**
+   * Every input-output instruction, including those combining several operations, executes the same
+   * on {@link Engine#INSTRUCTION} as on {@link Engine#MICROOPERATION}.
+   */
+  @Test
+  public void inputOutputInstructionMatchesMicrooperation() {
+    for (int word = 0xF000; word <= 0xFFFF; word++) {
+      assertSingleInstruction(Engine.INSTRUCTION, word);
+    }
+  }
+
+  /**
+   * Every register-reference and input-output instruction, including those whose operations change
+   * the same register, executes the same on {@link Engine#LATCH} as on {@link
+   * Engine#MICROOPERATION}.
+   */
+  @Test
+  public void latchedInstructionMatchesMicrooperation() {
+    for (int word = 0x7000; word <= 0x7FFF; word++) {
+      assertSingleInstruction(Engine.LATCH, word);
+    }
+
+    for (int word = 0xF000; word <= 0xFFFF; word++) {
+      assertSingleInstruction(Engine.LATCH, word);
+    }
+  }
+
+  /**
+   * Every register-reference and input-output instruction executes the same in a block translated
+   * by {@link Engine#TRANSLATION} as on {@link Engine#MICROOPERATION}.
+   */
+  @Test
+  public void translatedInstructionMatchesMicrooperation() {
+    for (int word = 0x7000; word <= 0x7FFF; word++) {
+      assertLoop(Engine.TRANSLATION, word);
+    }
+
+    for (int word = 0xF000; word <= 0xFFFF; word++) {
+      assertLoop(Engine.TRANSLATION, word);
+    }
+  }
+
+  /**
+   * Whole programs, run in chunks of varying size with input and output devices becoming ready
+   * between them, leave the same state on every {@link Engine} as on {@link Engine#MICROOPERATION}
+   * after every chunk. The application relies on this to run unthrottled with {@link
+   * Engine#INSTRUCTION} while stepping with {@link Computer#clock()}.
+   */
+  @Test
+  public void programsMatchMicrooperation() {
+    for (Engine engine : Engine.values()) {
+      assertProgram(engine, 0, ComputerTest.LOOP);
+      assertProgram(engine, 0, SELF_MODIFYING);
+      assertProgram(engine, 0x100, INTERRUPTS);
+    }
+  }
+
+  /**
+   * A program whose indirect load fails, after its loop has been translated, leaves the same state
+   * on every {@link Engine} as on {@link Engine#MICROOPERATION}: the writes and registers of the
+   * instructions before it, and the clock the failing instruction stopped in.
+   */
+  @Test
+  public void failedProgramsMatchMicrooperation() {
+    for (Engine engine : Engine.values()) {
+      Computer expected = new Computer();
+      Computer actual = new Computer();
+
+      for (Computer computer : new Computer[] {expected, actual}) {
+        for (int i = 0; i < FAILING.length; i++) {
+          computer.ram().write(ORIGIN + i, FAILING[i]);
+        }
+
+        computer.ram().write(0x183, 0x0FE0);
+        computer.pc().load(ORIGIN);
+        computer.s().load(1);
+      }
+
+      assertThrows(IllegalArgumentException.class, () -> expected.run(Engine.MICROOPERATION, 1000));
+      assertThrows(IllegalArgumentException.class, () -> actual.run(engine, 1000));
+      assertSameState(expected, actual, () -> engine + " after a failed indirect load");
+    }
+  }
+
+  /**
+   * Operations combined in one register-reference instruction apply in the order they are clocked.
+   */
+  @Test
+  public void combinedOperationsApplyInClockOrder() {
+    assertEquals(0x0000, accumulator(Engine.INSTRUCTION, 0x7A00, 0x1234)); // CLA CMA
+    assertEquals(0xEDCA, accumulator(Engine.INSTRUCTION, 0x7220, 0x1234)); // CMA INC
+    assertEquals(0x0000, accumulator(Engine.INSTRUCTION, 0x7820, 0x1234)); // CLA INC
+  }
+
+  /**
+   * Operations of one register-reference instruction which change the same register compose in the
+   * order they are clocked on {@link Engine#LATCH}, rather than the last one replacing the others.
+   */
+  @Test
+  public void latchedOperationsComposeInClockOrder() {
+    assertEquals(0x0000, accumulator(Engine.LATCH, 0x7A00, 0x1234)); // CLA CMA
+    assertEquals(0xEDCA, accumulator(Engine.LATCH, 0x7220, 0x1234)); // CMA INC
+    assertEquals(0x0000, accumulator(Engine.LATCH, 0x7820, 0x1234)); // CLA INC
+    assertEquals(0x1234, accumulator(Engine.LATCH, 0x70C0, 0x1234)); // CIL CIR
+  }
+
+  /**
+   * @param engine {@link Engine} to execute {@code word} with.
+   * @param word A register-reference instruction.
+   * @param ac The value of the accumulator before {@code word}.
+   * @return The value of the accumulator after {@code word}.
+   */
+  private static int accumulator(Engine engine, int word, int ac) {
+    Computer computer = new Computer();
+    prepare(computer, word, ac, 0, 0);
+    computer.run(engine, 1);
+    return computer.ac().value();
+  }
+
+  /**
+   * Executes {@code word} once on {@code engine} and on {@link Engine#MICROOPERATION} from every
+   * combination of accumulator, carry, and flags, and asserts the results are the same.
+   *
+   * @param engine {@link Engine} to compare with {@link Engine#MICROOPERATION}.
+   * @param word An instruction.
+   */
+  private static void assertSingleInstruction(Engine engine, int word) {
+    Computer expected = new Computer();
+    Computer actual = new Computer();
+
+    for (int ac : AC) {
+      for (int e = 0; e < 2; e++) {
+        for (int flags = 0; flags < 8; flags++) {
+          prepare(expected, word, ac, e, flags);
+          prepare(actual, word, ac, e, flags);
+          expected.run(Engine.MICROOPERATION, 1);
+          actual.run(engine, 1);
+
+          int state = ac;
+          int carry = e;
+          int ienFgiFgo = flags;
+          assertSameState(
+              expected,
+              actual,
+              () ->
+                  engine
+                      + " "
+                      + Integer.toHexString(word)
+                      + " from AC="
+                      + Integer.toHexString(state)
+                      + " E="
+                      + carry
+                      + " IEN,FGI,FGO="
+                      + Integer.toBinaryString(ienFgiFgo));
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs {@code word} in a loop on {@code engine} and on {@link Engine#MICROOPERATION} for {@link
+   * EngineTest#LOOP_INSTRUCTIONS} instructions, and asserts the results are the same. Two
+   * instructions without operations precede {@code word} so that the block containing it is long
+   * enough to be translated, and both the instruction after it and the one it skips to branch back.
+   *
+   * @param engine {@link Engine} to compare with {@link Engine#MICROOPERATION}.
+   * @param word An instruction.
+   */
+  private static void assertLoop(Engine engine, int word) {
+    Computer expected = new Computer();
+    Computer actual = new Computer();
+
+    // Without and with interrupts pending, from which the loop changes the accumulator and carry
+    int[][] starts = {{0x1234, 0, 0b000}, {0x8000, 1, 0b110}};
+
+    for (int[] start : starts) {
+      for (Computer computer : new Computer[] {expected, actual}) {
+        prepare(computer, NOP, start[0], start[1], start[2]);
+        computer.ram().write(ORIGIN + 1, NOP);
+        computer.ram().write(ORIGIN + 2, word);
+        computer.ram().write(ORIGIN + 3, LOOP);
+        computer.ram().write(ORIGIN + 4, LOOP);
+      }
+
+      expected.run(Engine.MICROOPERATION, LOOP_INSTRUCTIONS);
+      actual.run(engine, LOOP_INSTRUCTIONS);
+
+      assertSameState(
+          expected,
+          actual,
+          () ->
+              engine
+                  + " loop of "
+                  + Integer.toHexString(word)
+                  + " from AC="
+                  + Integer.toHexString(start[0])
+                  + " E="
+                  + start[1]
+                  + " IEN,FGI,FGO="
+                  + Integer.toBinaryString(start[2]));
+    }
+  }
+
+  /**
+   * Runs {@code program} on {@code engine} and on {@link Engine#MICROOPERATION} for {@link
+   * EngineTest#RUNS} chunks of {@link EngineTest#CHUNKS} instructions, and asserts the results are
+   * the same after each chunk. After every other chunk the input flag is raised with a new
+   * character and the output flag is raised, as if the devices had become ready.
+   *
+   * @param engine {@link Engine} to compare with {@link Engine#MICROOPERATION}.
+   * @param start The address of the first instruction of {@code program}.
+   * @param program Instructions and data to write from {@code start}.
+   */
+  private static void assertProgram(Engine engine, int start, int[] program) {
+    Computer expected = new Computer();
+    Computer actual = new Computer();
+
+    for (Computer computer : new Computer[] {expected, actual}) {
+      for (int i = 0; i < program.length; i++) {
+        computer.ram().write(start + i, program[i]);
+      }
+
+      computer.pc().load(start);
+      computer.s().load(1);
+    }
+
+    for (int run = 0; run < RUNS; run++) {
+      int chunk = CHUNKS[run % CHUNKS.length];
+      assertEquals(
+          expected.run(Engine.MICROOPERATION, chunk), actual.run(engine, chunk), "Executed");
+
+      if (run % 2 == 1) {
+        for (Computer computer : new Computer[] {expected, actual}) {
+          if (computer.fgi().value() == 0) {
+            computer.inpr().load('A' + run % 26);
+            computer.fgi().load(1);
+          }
+
+          computer.fgo().load(1);
+        }
+      }
+
+      int after = run;
+      assertSameState(
+          expected,
+          actual,
+          () -> engine + " program at " + Integer.toHexString(start) + " after chunk " + after);
+    }
+  }
+
+  /**
+   * Resets {@code computer} to run {@code word} at {@link EngineTest#ORIGIN}.
+   *
+   * @param computer {@link Computer} to prepare.
+   * @param word The instruction at {@link EngineTest#ORIGIN}.
+   * @param ac The value of the accumulator.
+   * @param e The value of the carry flip-flop.
+   * @param flags Bits representing IEN, FGI, and FGO from least to most significant.
+   */
+  static void prepare(Computer computer, int word, int ac, int e, int flags) {
+    computer.reset();
+    computer.ram().write(ORIGIN, word);
+    computer.pc().load(ORIGIN);
+    computer.ac().load(ac);
+    computer.e().load(e);
+    computer.ien().load(flags & 1);
+    computer.fgi().load(flags >> 1 & 1);
+    computer.fgo().load(flags >> 2 & 1);
+    computer.inpr().load(INPR);
+    computer.s().load(1);
+  }
+
+  /**
+   * Asserts that every register, the sequence counter, and the addresses written to since the
+   * {@link RAM} was last cleared are the same in {@code actual} as in {@code expected}.
+   *
+   * @param expected {@link Computer} run with {@link Engine#MICROOPERATION}.
+   * @param actual {@link Computer} run with the {@link Engine} under test.
+   * @param message {@link Supplier} of the description of the run.
+   */
+  static void assertSameState(Computer expected, Computer actual, Supplier<String> message) {
+    assertEquals(state(expected), state(actual), message);
+    assertEquals(expected.ram().dirty(), actual.ram().dirty(), message);
+
+    BitSet dirty = expected.ram().dirty();
+
+    for (int address = dirty.nextSetBit(0); address >= 0; address = dirty.nextSetBit(address + 1)) {
+      assertEquals(expected.ram().read(address), actual.ram().read(address), message);
+    }
+  }
+
+  /**
+   * @param computer {@link Computer} whose state to describe.
+   * @return {@link String} of the sequence counter and the value of every register of {@code
+   *     computer}.
+   */
+  private static String state(Computer computer) {
+    return "SC="
+        + computer.sc()
+        + " D="
+        + computer.decoder()
+        + " PC="
+        + computer.pc()
+        + " AR="
+        + computer.ar()
+        + " IR="
+        + computer.ir()
+        + " DR="
+        + computer.dr()
+        + " AC="
+        + computer.ac()
+        + " TR="
+        + computer.tr()
+        + " INPR="
+        + computer.inpr()
+        + " OUTR="
+        + computer.outr()
+        + " I="
+        + computer.i()
+        + " R="
+        + computer.r()
+        + " IEN="
+        + computer.ien()
+        + " E="
+        + computer.e()
+        + " FGI="
+        + computer.fgi()
+        + " FGO="
+        + computer.fgo()
+        + " S="
+        + computer.s();
+  }
+}
@@ -0,0 +1,79 @@
+package com.tomeraberbach.mano.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the class files generated by {@link Translator} and {@link Microoperation#fuse}, which
+ * are defined here without the fallbacks of their generators so a {@link VerifyError} fails the
+ * test. The build runs the tests with {@code -Xverify:all}, so every class is fully verified.
+ */
+public class TranslatorTest {
+  /** {@link MethodHandles.Lookup} in the package the generated classes are defined in. */
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /** The parameter types of a constructor with no parameters. */
+  private static final Class<?>[] NONE = {};
+
+  /** Operands covering the first, a middle and the last address. */
+  private static final int[] ADDRESSES = {0, 0x123, 0xFFF};
+
+  /**
+   * Every memory-reference instruction, direct and indirect, and a block of every length compiles
+   * to a class the verifier accepts, including STA instructions which branch out of a block.
+   */
+  @Test
+  public void blocksPassVerification() {
+    for (int opcode = 0; opcode < 7; opcode++) {
+      for (int indirect = 0; indirect < 2; indirect++) {
+        for (int address : ADDRESSES) {
+          int word = indirect << 15 | opcode << 12 | address;
+          assertVerified(
+              Translator.compile(address, new int[] {word}, Computer.ADDRESS_SIZE), NONE);
+          assertVerified(Translator.compile(0xFF0, new int[] {word}, Computer.ADDRESS_SIZE), NONE);
+        }
+      }
+    }
+
+    int[] words = new int[64];
+
+    for (int n = 0; n < words.length; n++) {
+      // Alternates STA, register-reference and input-output instructions
+      words[n] = n % 3 == 0 ? 0x3000 | n : n % 3 == 1 ? 0x7000 | 1 << n % 12 : 0xF000 | 1 << n % 12;
+      assertVerified(
+          Translator.compile(0, Arrays.copyOf(words, n + 1), Computer.ADDRESS_SIZE), NONE);
+    }
+  }
+
+  /** A fused {@link Microoperation} of every length compiles to a class the verifier accepts. */
+  @Test
+  public void fusedMicrooperationsPassVerification() {
+    for (int length = 0; length <= Computer.SIGNALS.size(); length++) {
+      Consumer<?>[] consumers = new Consumer<?>[length];
+      Arrays.fill(consumers, (Consumer<Computer>) computer -> {});
+      assertVerified(
+          Microoperation.compile(length),
+          new Class<?>[] {Consumer[].class},
+          new Object[] {consumers});
+    }
+  }
+
+  /**
+   * @param bytes Bytes of a class file in the package of this {@link TranslatorTest}.
+   * @param parameters The parameter types of the constructor to call.
+   * @param arguments The arguments of the constructor to call.
+   */
+  private static void assertVerified(byte[] bytes, Class<?>[] parameters, Object... arguments) {
+    assertDoesNotThrow(
+        () ->
+            LOOKUP
+                .defineHiddenClass(bytes, true)
+                .lookupClass()
+                .getDeclaredConstructor(parameters)
+                .newInstance(arguments));
+  }
+}
@@ -1,8 +1,12 @@
 package com.tomeraberbach.mano.application;
 
+import com.tomeraberbach.mano.assembly.IncrementalCompiler;
+import com.tomeraberbach.mano.assembly.Program;
 import java.io.*;
 import java.util.stream.Collectors;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -28,6 +32,12 @@ public class Code implements ChangeListener<String> {
   /** JavaFX {@link Tab} which this code is displayed in. */
   private Tab tab;
 
+  /** {@link IncrementalCompiler} which recompiles this code as it is edited. */
+  private IncrementalCompiler compiler;
+
+  /** {@link ReadOnlyObjectWrapper} of the {@link Program} compiled from the current text. */
+  private ReadOnlyObjectWrapper<Program> program;
+
   /** Initializes an empty code document titled 'Untitled'. */
   public Code() {
     this(new File("Untitled"), "");
@@ -41,6 +51,9 @@ public class Code implements ChangeListener<String> {
     this.file = file;
     saved = text;
 
+    compiler = new IncrementalCompiler();
+    program = new ReadOnlyObjectWrapper<>(compiler.compile(text));
+
     // Creates a tab with a text area in it
     TextArea textArea = new TextArea();
     textArea.setText(saved);
@@ -98,6 +111,21 @@ public class Code implements ChangeListener<String> {
     return tab;
   }
 
+  /**
+   * @return The {@link Program} compiled from the current text of this {@link Code}.
+   */
+  public Program program() {
+    return program.get();
+  }
+
+  /**
+   * @return {@link ReadOnlyObjectProperty} of the {@link Program} compiled from the current text of
+   *     this {@link Code}, which changes as the text is edited.
+   */
+  public ReadOnlyObjectProperty<Program> programProperty() {
+    return program.getReadOnlyProperty();
+  }
+
   /**
    * Saves the code document text found in the text area in {@link Code#tab} to {@link Code#file}.
    *
@@ -188,7 +216,8 @@ public class Code implements ChangeListener<String> {
 
   /**
    * Called when text in the code document's {@link Code#tab} was changed. Adds an asterisk to the
-   * code document's {@link Tab} title to indicate it has unsaved changes.
+   * code document's {@link Tab} title to indicate it has unsaved changes and recompiles only the
+   * edited lines of the code with {@link Code#compiler}.
    *
    * @param observableValue {@link String} value observed in the text area.
    * @param old {@link String} representing the text prior to the change.
@@ -199,5 +228,7 @@ public class Code implements ChangeListener<String> {
       ObservableValue<? extends String> observableValue, String old, String current) {
     // Adds an asterisk to the code tab if the code was altered
     tab.setText(file.getName() + (old.equals(current) ? "" : "*"));
+
+    program.set(compiler.compile(current));
   }
 }
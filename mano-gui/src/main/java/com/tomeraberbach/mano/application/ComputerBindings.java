@@ -0,0 +1,125 @@
+package com.tomeraberbach.mano.application;
+
+import com.tomeraberbach.mano.Utilities;
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.RAM;
+import com.tomeraberbach.mano.simulation.Register;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * Class used to expose the state of a {@link Computer} to the {@link Main} application as JavaFX
+ * properties. The {@link Computer} is run on the thread of a {@link Simulation}, so the properties
+ * and a copy of its {@link RAM} are only brought up to date by {@link
+ * ComputerBindings#sync(Simulation.Frame)}, which must be called on the JavaFX application thread
+ * with the {@link Simulation.Frame} instances the {@link Simulation} publishes.
+ */
+public class ComputerBindings {
+  /** {@link Computer} whose state is exposed. */
+  private Computer computer;
+
+  /**
+   * {@link SimpleIntegerProperty} mirroring the sequence counter of this {@link
+   * ComputerBindings#computer}.
+   */
+  private SimpleIntegerProperty scProperty;
+
+  /** {@link SimpleIntegerProperty} mirroring each {@link Register} which has been bound. */
+  private Map<Register, SimpleIntegerProperty> properties;
+
+  /**
+   * Copy of the {@link RAM} of this {@link ComputerBindings#computer} as of the last {@link
+   * Simulation.Frame}, which is only touched on the JavaFX application thread.
+   */
+  private RAM ram;
+
+  /**
+   * {@code computer} must not have started running on the thread of a {@link Simulation} yet.
+   *
+   * @param computer {@link Computer} whose state is exposed.
+   */
+  public ComputerBindings(Computer computer) {
+    this.computer = computer;
+    scProperty = new SimpleIntegerProperty(computer.sc());
+    properties = new IdentityHashMap<>();
+    ram = new RAM(computer.ram().addressSize(), computer.ram().valueSize());
+  }
+
+  /**
+   * @return {@link ReadOnlyIntegerProperty} mirroring the sequence counter of this {@link
+   *     ComputerBindings#computer}.
+   */
+  public ReadOnlyIntegerProperty scProperty() {
+    return scProperty;
+  }
+
+  /**
+   * @param register {@link Register} of this {@link ComputerBindings#computer}.
+   * @return {@link ReadOnlyIntegerProperty} mirroring the value of {@code register}.
+   */
+  public ReadOnlyIntegerProperty valueProperty(Register register) {
+    return properties.computeIfAbsent(register, r -> new SimpleIntegerProperty());
+  }
+
+  /**
+   * @param register {@link Register} of this {@link ComputerBindings#computer}.
+   * @return {@link StringBinding} representing the value of {@code register} as a hexadecimal
+   *     {@link String}.
+   */
+  public StringBinding hexadecimalStringBinding(Register register) {
+    ReadOnlyIntegerProperty property = valueProperty(register);
+    return Bindings.createStringBinding(
+        () -> Utilities.hex(property.get(), (register.size() + 3) / 4), property);
+  }
+
+  /**
+   * @param register {@link Register} of this {@link ComputerBindings#computer}.
+   * @return {@link StringBinding} representing the value of {@code register} as character {@link
+   *     String}.
+   */
+  public StringBinding characterStringBinding(Register register) {
+    ReadOnlyIntegerProperty property = valueProperty(register);
+    return Bindings.createStringBinding(
+        () -> property.get() == 0 ? "" : String.valueOf((char) property.get()), property);
+  }
+
+  /**
+   * @return {@link ComputerBindings#ram}.
+   */
+  public RAM ram() {
+    return ram;
+  }
+
+  /**
+   * Copies the state of this {@link ComputerBindings#computer} in {@code frame} into the properties
+   * and this {@link ComputerBindings#ram}.
+   *
+   * @param frame {@link Simulation.Frame} published by the {@link Simulation} running this {@link
+   *     ComputerBindings#computer}.
+   */
+  public void sync(Simulation.Frame frame) {
+    scProperty.set(frame.sc());
+
+    for (int i = 0; i < frame.registers().length; i++) {
+      SimpleIntegerProperty property = properties.get(frame.registers()[i]);
+
+      if (property != null) {
+        property.set(frame.values()[i]);
+      }
+    }
+
+    if (frame.image() != null) {
+      ram.load(frame.image());
+    }
+
+    for (int i = 0; i < frame.addresses().length; i++) {
+      ram.write(frame.addresses()[i], frame.words()[i]);
+    }
+
+    ram.clean();
+  }
+}
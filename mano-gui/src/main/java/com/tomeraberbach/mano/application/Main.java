@@ -1,19 +1,23 @@
 package com.tomeraberbach.mano.application;
 
+import com.tomeraberbach.mano.assembly.AssemblyCache;
 import com.tomeraberbach.mano.assembly.Compiler;
+import com.tomeraberbach.mano.assembly.Linker;
 import com.tomeraberbach.mano.assembly.Program;
 import com.tomeraberbach.mano.simulation.Computer;
-import com.tomeraberbach.mano.simulation.Memory;
-import com.tomeraberbach.mano.simulation.Microoperation;
 import com.tomeraberbach.mano.simulation.RAM;
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -23,6 +27,7 @@ import javafx.scene.input.*;
 import javafx.scene.layout.GridPane;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 /** JavaFX controller and starting point for the main application window. */
 public class Main extends Application {
@@ -38,6 +43,32 @@ public class Main extends Application {
           + "unlimited use and access to this application and\n"
           + "its code.";
 
+  /**
+   * The system property which, when set to {@code true}, assembles files through an {@link
+   * AssemblyCache} in {@link Main#CACHE}.
+   */
+  private static final String CACHING = "mano.cache";
+
+  /** The directory of the {@link AssemblyCache} which files are assembled through. */
+  private static final Path CACHE =
+      Path.of(System.getProperty("user.home"), ".mano-simulator", "cache");
+
+  /** The maximum number of bytes the entries of the {@link AssemblyCache} may take up. */
+  private static final long CACHE_LIMIT = 16L << 20;
+
+  /**
+   * {@link ExecutorService} whose daemon threads assemble and link files, and read and write the
+   * {@link AssemblyCache}, off the JavaFX application thread and the common fork-join pool.
+   */
+  private static final ExecutorService ASSEMBLER =
+      Executors.newFixedThreadPool(
+          Runtime.getRuntime().availableProcessors(),
+          runnable -> {
+            Thread thread = new Thread(runnable, "Mano assembler");
+            thread.setDaemon(true);
+            return thread;
+          });
+
   /** {@link KeyCombination} for saving. */
   public static final KeyCombination SAVING =
       new KeyCodeCombination(KeyCode.S, KeyCombination.CONTROL_DOWN);
@@ -50,6 +81,10 @@ public class Main extends Application {
   private final ArrayList<Code> codes;
   /** {@link Computer} used for running simulations. */
   private final Computer computer;
+  /** {@link ComputerBindings} exposing this {@link Main#computer} to the application controls. */
+  private final ComputerBindings bindings;
+  /** {@link Simulation} running this {@link Main#computer} on its own thread. */
+  private final Simulation simulation;
   /**
    * {@link TabPane} where the {@link Code} documents in this {@link Main#codes} will be displayed.
    */
@@ -94,19 +129,23 @@ public class Main extends Application {
   @FXML private TextField inputFX;
   /** {@link ToggleButton} for running and pausing the simulation. */
   @FXML private ToggleButton runFX;
-  /** {@link Slider} for adjusting the speed of the simulation. */
+  /**
+   * {@link Slider} for adjusting the clock frequency of the simulation, as the base ten logarithm
+   * of the frequency in hertz, which is unthrottled at its maximum.
+   */
   @FXML private Slider speedFX;
+  /** {@link TextField} where the achieved and target clock frequencies will be displayed. */
+  @FXML private TextField clockFX;
   /** {@link TextField} where the currently executing microoperation will be displayed. */
   @FXML private TextField microoperationFX;
-  /** {@link TableView} where the current state of {@link RAM} will be displayed. */
-  @FXML private TableView<Memory> ramFX;
+  /** {@link MemoryView} where the current state of {@link RAM} will be displayed. */
+  @FXML private MemoryView ramFX;
   /** The contents of the application window. */
   private Stage stage;
   /** The most recently compiled program. */
   private Program program;
-
-  /** The {@link Task} for running the simulation. */
-  private Task<Void> task;
+  /** The number of times all files were assembled, so only the latest result is shown. */
+  private int assemblies;
 
   /**
    * Initializes the application window with an empty {@link ArrayList} of {@link Code} documents.
@@ -114,6 +153,8 @@ public class Main extends Application {
   public Main() {
     codes = new ArrayList<>();
     computer = new Computer();
+    bindings = new ComputerBindings(computer);
+    simulation = new Simulation(computer);
     program = new Program(0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
   }
 
@@ -133,9 +174,7 @@ public class Main extends Application {
   @FXML
   private void newOnAction() {
     // Creates a new code document
-    Code code = new Code();
-    codes.add(code);
-    codesFX.getTabs().add(code.tab());
+    addCode(new Code());
   }
 
   /**
@@ -156,15 +195,38 @@ public class Main extends Application {
     if (file != null) {
       // Tries to open the file and creates a new code document for it
       try {
-        Code code = new Code(file);
-        codes.add(code);
-        codesFX.getTabs().add(code.tab());
+        addCode(new Code(file));
       } catch (IOException e) {
         consoleFX.setText("Couldn't open " + file + ".");
       }
     }
   }
 
+  /**
+   * Adds {@code code} to {@link Main#codes}, displays it in {@link Main#codesFX}, and logs the
+   * errors of its {@link Program} in {@link Main#consoleFX} as it is edited.
+   *
+   * @param code {@link Code} document to add.
+   */
+  private void addCode(Code code) {
+    codes.add(code);
+    codesFX.getTabs().add(code.tab());
+
+    code.programProperty()
+        .addListener(
+            (observableValue, old, current) -> {
+              // Only shows the diagnostics of the code document being edited
+              if (code.tab().isSelected()) {
+                consoleFX.setText(
+                    current.errors().isEmpty()
+                        ? ""
+                        : code.file().getName()
+                            + ":\n"
+                            + current.errors().stream().collect(Collectors.joining("\n")));
+              }
+            });
+  }
+
   /**
    * Called when the 'Close' button is pressed. If {@link Main#codesFX} contains any tabs it closes
    * the currently selected {@link Code} document. It will prompt the user to save the {@link Code}
@@ -233,8 +295,9 @@ public class Main extends Application {
   }
 
   /**
-   * Called when the 'Assemble' button is pressed. Compiles the currently selected tab's assembly
-   * code in {@link Main#codes} using {@link Compiler}. Logs any errors in {@link Main#consoleFX}.
+   * Called when the 'Assemble' button is pressed. Loads the {@link Program} which the currently
+   * selected tab's assembly code in {@link Main#codes} was incrementally compiled to (see {@link
+   * Code#program()}). Logs any errors in {@link Main#consoleFX}.
    */
   @FXML
   private void assembleOnAction() {
@@ -242,8 +305,9 @@ public class Main extends Application {
       resetOnAction();
       StringBuilder builder = new StringBuilder();
 
-      Tab tab = codes.get(codesFX.getSelectionModel().getSelectedIndex()).tab();
-      Program p = Compiler.compile(((TextArea) tab.getContent()).getText());
+      Code code = codes.get(codesFX.getSelectionModel().getSelectedIndex());
+      Tab tab = code.tab();
+      Program p = code.program();
 
       if (!p.errors().isEmpty()) {
         builder
@@ -260,15 +324,9 @@ public class Main extends Application {
   /** Called when the 'Reset' button is pressed. */
   @FXML
   private void resetOnAction() {
-    if (task != null && task.isRunning()) {
-      task.cancel();
-    }
-
     runFX.setSelected(false);
     runFX.setText("Run");
-    microoperationFX.setText("");
-    computer.load(program);
-    ramFX.refresh();
+    simulation.load(program.image());
   }
 
   /**
@@ -279,9 +337,7 @@ public class Main extends Application {
         () -> {
           if (program.errors().isEmpty()) {
             this.program = program;
-            computer.load(program);
-            microoperationFX.clear();
-            ramFX.refresh();
+            simulation.load(program.image());
             tabsFX.getSelectionModel().select(2);
             new Alert(Alert.AlertType.INFORMATION, "Compilation Successful.").showAndWait();
           } else {
@@ -291,36 +347,71 @@ public class Main extends Application {
   }
 
   /**
-   * Called when the 'Assemble All' button is pressed. Compiles all the assembly code in {@link
-   * Main#codes} using {@link Compiler}. Logs any errors in {@link Main#consoleFX}.
+   * Called when the 'Assemble All' button is pressed. Assembles all the assembly code in {@link
+   * Main#codes} in parallel on {@link Main#ASSEMBLER} and links it with {@link Linker}, so labels
+   * defined in one file can be used in the others. Logs any errors and conflicting addresses in
+   * {@link Main#consoleFX} once done, unless all files were assembled again in the meantime.
    */
   @FXML
   private void assembleAllOnAction() {
     if (codesFX.getTabs().size() > 0) {
       resetOnAction();
-      StringBuilder builder = new StringBuilder();
+      int assembly = ++assemblies;
 
-      Program[] programs = new Program[codesFX.getTabs().size()];
+      String[] files = new String[codes.size()];
+      String[] titles = new String[codes.size()];
+      String[] sources = new String[codes.size()];
 
       for (int i = 0; i < codes.size(); i++) {
-        programs[i] = Compiler.compile(((TextArea) codes.get(i).tab().getContent()).getText());
-
-        if (!programs[i].errors().isEmpty()) {
-          builder
-              .append(codes.get(i).tab().getText())
-              .append(":\n")
-              .append(programs[i].errors().stream().collect(Collectors.joining("\n")));
-        }
+        files[i] = codes.get(i).file().getName();
+        titles[i] = codes.get(i).tab().getText();
+        sources[i] = ((TextArea) codes.get(i).tab().getContent()).getText();
       }
 
-      Program p = Program.union(programs[0].start(), programs);
+      // Assembles every file in parallel and resolves the labels they share
+      Linker.assemble(sources, ASSEMBLER)
+          .thenAcceptAsync(
+              modules -> {
+                StringBuilder builder = new StringBuilder();
+                Linker linker = Linker.resolve(files, modules);
+                Program[] programs = linker.programs();
+
+                for (int i = 0; i < programs.length; i++) {
+                  if (!programs[i].errors().isEmpty()) {
+                    builder
+                        .append(titles[i])
+                        .append(":\n")
+                        .append(programs[i].errors().stream().collect(Collectors.joining("\n")))
+                        .append("\n");
+                  }
+                }
 
-      if (p.conflicts()) {
-        builder.append("Conflicting memory addresses between files.\n");
-      }
+                Program p = linker.link();
 
-      consoleFX.setText(builder.toString());
-      updateSimulation(p);
+                for (String conflict : linker.conflicts()) {
+                  builder.append(conflict).append("\n");
+                }
+
+                Platform.runLater(
+                    () -> {
+                      if (assembly == assemblies) {
+                        consoleFX.setText(builder.toString());
+                        updateSimulation(p);
+                      }
+                    });
+              },
+              ASSEMBLER)
+          .exceptionally(
+              e -> {
+                Platform.runLater(
+                    () -> {
+                      if (assembly == assemblies) {
+                        consoleFX.setText("Couldn't assemble the files: " + e.getCause());
+                        tabsFX.getSelectionModel().select(1);
+                      }
+                    });
+                return null;
+              });
     }
   }
 
@@ -351,23 +442,23 @@ public class Main extends Application {
   /** Called when the 'Input Enable' button is pressed. */
   @FXML
   private void inputEnableOnAction() {
-    Platform.runLater(
-        () -> {
-          if (inputFX.getText().matches("0x[0-9a-fA-F][0-9a-fA-F]?")) {
-            computer.inpr().load(Integer.decode(inputFX.getText()));
-          } else if (inputFX.getText().length() == 1) {
-            computer.inpr().load(Math.min(inputFX.getText().charAt(0), computer.inpr().max()));
-          } else {
-            if (task != null && task.isRunning()) {
-              task.cancel();
-            }
+    int input;
 
-            runFX.setSelected(false);
-            runFX.setText("Run");
-            inputHelpOnAction();
-            return;
-          }
+    if (inputFX.getText().matches("0x[0-9a-fA-F][0-9a-fA-F]?")) {
+      input = Integer.decode(inputFX.getText());
+    } else if (inputFX.getText().length() == 1) {
+      input = Math.min(inputFX.getText().charAt(0), computer.inpr().max());
+    } else {
+      simulation.stop();
+      runFX.setSelected(false);
+      runFX.setText("Run");
+      inputHelpOnAction();
+      return;
+    }
 
+    simulation.execute(
+        computer -> {
+          computer.inpr().load(input);
           computer.fgi().load(1);
         });
   }
@@ -375,99 +466,59 @@ public class Main extends Application {
   /** Called when the 'Output Enable' button is pressed. */
   @FXML
   private void outputEnableOnAction() {
-    Platform.runLater(() -> computer.fgo().load(1));
+    simulation.execute(computer -> computer.fgo().load(1));
   }
 
   /** Called when the 'Run' button is toggled. */
   @FXML
   private void runOnAction() {
-    if (task != null && task.isRunning()) {
-      task.cancel();
-    }
-
     if (runFX.isSelected()) {
       runFX.setText("Stop");
-
-      task =
-          new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-              while (computer.s().value(0)) {
-                CountDownLatch latch = new CountDownLatch(1);
-
-                if (computer.microoperations().isEmpty()) {
-                  Platform.runLater(
-                      () -> {
-                        computer.tick();
-                        latch.countDown();
-                      });
-                } else {
-                  latch.countDown();
-                }
-
-                latch.await();
-
-                while (!computer.microoperations().isEmpty()) {
-                  Microoperation microoperation = computer.microoperations().poll();
-
-                  if (microoperation != null) {
-                    Platform.runLater(
-                        () -> {
-                          microoperationFX.setText(microoperation.toString());
-                          microoperation.execute(computer);
-                          ramFX.refresh();
-                        });
-
-                    Thread.sleep(Math.round(800 / Math.pow(speedFX.getValue(), 3.0)));
-                  }
-                }
-              }
-
-              return null;
-            }
-          };
-
-      Thread thread = new Thread(task);
-      thread.setDaemon(true);
-      thread.start();
+      simulation.hertz(hertz());
+      simulation.start();
     } else {
       runFX.setText("Run");
+      simulation.stop();
     }
   }
 
+  /**
+   * @return The clock frequency in hertz chosen with {@link Main#speedFX}, or {@link
+   *     Pacer#UNTHROTTLED} at its maximum.
+   */
+  private double hertz() {
+    return speedFX.getValue() >= speedFX.getMax()
+        ? Pacer.UNTHROTTLED
+        : Math.pow(10.0, speedFX.getValue());
+  }
+
+  /**
+   * @param hertz A frequency in hertz.
+   * @return {@link String} of {@code hertz} with a metric prefix, such as "1.50 kHz".
+   */
+  private static String frequency(double hertz) {
+    if (hertz >= 1e6) {
+      return String.format("%.3g MHz", hertz / 1e6);
+    } else if (hertz >= 1e3) {
+      return String.format("%.3g kHz", hertz / 1e3);
+    }
+
+    return String.format("%.3g Hz", hertz);
+  }
+
   /** Called when the 'Step' button is pressed. */
   @FXML
   private void stepOnAction() {
-    if (task != null && task.isRunning()) {
-      task.cancel();
-    }
-
     runFX.setSelected(false);
     runFX.setText("Run");
-    if (computer.s().value(0)) {
-      if (computer.microoperations().isEmpty()) {
-        computer.tick();
-      }
-
-      Platform.runLater(
-          () -> {
-            if (!computer.microoperations().isEmpty()) {
-              Microoperation microoperation = computer.microoperations().poll();
-
-              if (microoperation != null) {
-                microoperationFX.setText(microoperation.toString());
-                microoperation.execute(computer);
-                ramFX.refresh();
-              }
-            }
-          });
-    }
+    simulation.step();
   }
 
   /** Called when the 'Export' button is pressed. */
   @FXML
   private void exportOnAction() {
-    TextArea textArea = new TextArea(computer.ram().toString());
+    String text = bindings.ram().toString();
+    TextArea textArea = new TextArea(text);
     textArea.setEditable(false);
     textArea.setWrapText(true);
     textArea.setFont(Code.CODE_FONT);
@@ -476,11 +527,9 @@ public class Main extends Application {
     gridPane.setMaxWidth(Double.MAX_VALUE);
     gridPane.add(textArea, 0, 0);
 
-    Alert alert =
-        new Alert(
-            Alert.AlertType.INFORMATION,
-            "",
-            new ButtonType("Copy to Clipboard", ButtonBar.ButtonData.OTHER));
+    ButtonType copy = new ButtonType("Copy to Clipboard", ButtonBar.ButtonData.OTHER);
+    ButtonType save = new ButtonType("Save As…", ButtonBar.ButtonData.OTHER);
+    Alert alert = new Alert(Alert.AlertType.INFORMATION, "", copy, save);
     alert.setTitle("RAM");
     alert.setHeaderText("RAM");
     alert.getDialogPane().setContent(gridPane);
@@ -488,14 +537,38 @@ public class Main extends Application {
         .showAndWait()
         .ifPresent(
             type -> {
-              if (type.getButtonData() == ButtonBar.ButtonData.OTHER) {
+              if (type == copy) {
                 final ClipboardContent content = new ClipboardContent();
-                content.putString(computer.ram().toString());
+                content.putString(text);
                 Clipboard.getSystemClipboard().setContent(content);
+              } else if (type == save) {
+                exportToFile();
               }
             });
   }
 
+  /** Streams the current state of {@link RAM} to a file chosen by the user. */
+  private void exportToFile() {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setTitle("Save As...");
+
+    // Gets the file to save to
+    File file = fileChooser.showSaveDialog(stage);
+
+    if (file != null) {
+      try (FileChannel channel =
+          FileChannel.open(
+              file.toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        bindings.ram().export(channel);
+      } catch (IOException e) {
+        consoleFX.setText("Couldn't save " + file + ".");
+      }
+    }
+  }
+
   /**
    * Used to launch the application.
    *
@@ -513,6 +586,20 @@ public class Main extends Application {
     main.stage = stage;
     main.bind();
 
+    // Reuses the object modules assembled by earlier sessions when assembling all files
+    if (Boolean.getBoolean(CACHING)) {
+      try {
+        Compiler.cache(new AssemblyCache(CACHE, CACHE_LIMIT));
+      } catch (IOException e) {
+        main.consoleFX.setText(
+            "Couldn't create the assembly cache in "
+                + CACHE
+                + ", so files will be assembled from scratch: "
+                + e);
+        main.tabsFX.getSelectionModel().select(1);
+      }
+    }
+
     Scene scene = new Scene(root, 1200, 700);
     scene.setOnKeyPressed(
         event -> {
@@ -540,33 +627,96 @@ public class Main extends Application {
 
   /** Binds the application controls to simulation values. */
   private void bind() {
-    scFX.textProperty().bind(computer.scProperty().asString());
-    pcFX.textProperty().bind(computer.pc().hexadecimalStringBinding());
-    arFX.textProperty().bind(computer.ar().hexadecimalStringBinding());
-    irFX.textProperty().bind(computer.ir().hexadecimalStringBinding());
-    drFX.textProperty().bind(computer.dr().hexadecimalStringBinding());
-    acFX.textProperty().bind(computer.ac().hexadecimalStringBinding());
-    trFX.textProperty().bind(computer.tr().hexadecimalStringBinding());
-    inprFX.textProperty().bind(computer.inpr().hexadecimalStringBinding());
-    outrFX.textProperty().bind(computer.outr().characterStringBinding());
-    iFX.textProperty().bind(computer.i().hexadecimalStringBinding());
-    sFX.textProperty().bind(computer.s().hexadecimalStringBinding());
-    eFX.textProperty().bind(computer.e().hexadecimalStringBinding());
-    rFX.textProperty().bind(computer.r().hexadecimalStringBinding());
-    ienFX.textProperty().bind(computer.ien().hexadecimalStringBinding());
-    fgiFX.textProperty().bind(computer.fgi().hexadecimalStringBinding());
-    fgoFX.textProperty().bind(computer.fgo().hexadecimalStringBinding());
-
-    ramFX.itemsProperty().bind(computer.ram().valuesProperty());
-
-    computer
-        .pc()
-        .valueProperty()
+    scFX.textProperty().bind(bindings.scProperty().asString());
+    pcFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.pc()));
+    arFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.ar()));
+    irFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.ir()));
+    drFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.dr()));
+    acFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.ac()));
+    trFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.tr()));
+    inprFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.inpr()));
+    outrFX.textProperty().bind(bindings.characterStringBinding(computer.outr()));
+    iFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.i()));
+    sFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.s()));
+    eFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.e()));
+    rFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.r()));
+    ienFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.ien()));
+    fgiFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.fgi()));
+    fgoFX.textProperty().bind(bindings.hexadecimalStringBinding(computer.fgo()));
+
+    ramFX.setRam(bindings.ram());
+    bindings
+        .valueProperty(computer.pc())
         .addListener(
             (observableValue, number, t1) -> {
-              ramFX.getSelectionModel().select(t1.intValue());
-              ramFX.scrollTo(Math.max(0, t1.intValue() - 7));
+              ramFX.setPc(t1.intValue());
+              ramFX.scrollTo(t1.intValue());
             });
+    bindings
+        .valueProperty(computer.ar())
+        .addListener((observableValue, number, t1) -> ramFX.setAr(t1.intValue()));
+
+    speedFX.setLabelFormatter(
+        new StringConverter<>() {
+          @Override
+          public String toString(Double value) {
+            return value >= speedFX.getMax() ? "Max" : frequency(Math.pow(10.0, value));
+          }
+
+          @Override
+          public Double fromString(String string) {
+            return null;
+          }
+        });
+    speedFX
+        .valueProperty()
+        .addListener((observableValue, old, current) -> simulation.hertz(hertz()));
+    simulation.hertz(hertz());
+
+    // Applies at most one frame of the simulation per pulse
+    new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        Simulation.Frame frame = simulation.poll();
+
+        if (frame != null) {
+          refresh(frame);
+        }
+      }
+    }.start();
+  }
+
+  /**
+   * Brings the application controls up to date with the simulation, logging any error which stopped
+   * it in {@link Main#consoleFX}.
+   *
+   * @param frame {@link Simulation.Frame} of the changes to the simulation.
+   */
+  private void refresh(Simulation.Frame frame) {
+    bindings.sync(frame);
+
+    if (frame.image() != null) {
+      ramFX.invalidate();
+    } else {
+      ramFX.written(frame.addresses());
+    }
+
+    microoperationFX.setText(
+        frame.microoperation() == null ? "" : frame.microoperation().toString());
+    clockFX.setText(
+        frame.unthrottled()
+            ? String.format("%.3g instructions/s", frame.achieved())
+            : frequency(frame.achieved()) + " of " + frequency(hertz()));
+
+    if (frame.halted() || frame.error() != null) {
+      runFX.setSelected(false);
+      runFX.setText("Run");
+    }
+
+    if (frame.error() != null) {
+      consoleFX.setText("The simulation stopped: " + frame.error().getMessage());
+      tabsFX.getSelectionModel().select(1);
+    }
   }
 
   /** Called when the 'Quit' button is pressed. Alerts the user about any unsaved code. */
@@ -0,0 +1,322 @@
+package com.tomeraberbach.mano.application;
+
+import com.tomeraberbach.mano.Utilities;
+import com.tomeraberbach.mano.simulation.RAM;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * Control which shows the label, address, source code, and value of each address of a {@link RAM}
+ * in a fixed-width grid drawn on a {@link Canvas}. Only the visible rows are drawn, and only in a
+ * pulse after something they show has changed, so the cost of a frame depends on the height of the
+ * view rather than on the number of addresses. The addresses in the program counter and the address
+ * register are highlighted, and each address flashes briefly when it is written to.
+ */
+public class MemoryView extends Region {
+  /** {@link Font} the grid is drawn in. */
+  private static final Font FONT = Code.CODE_FONT;
+
+  /** The height of a row in pixels. */
+  private static final double ROW_HEIGHT = 18.0;
+
+  /** The horizontal padding of a column in pixels. */
+  private static final double PADDING = 4.0;
+
+  /** The number of nanoseconds a write flash takes to fade. */
+  private static final long FLASH = TimeUnit.MILLISECONDS.toNanos(500);
+
+  /** The number of characters of the label column. */
+  private static final int LABEL_COLUMNS = 6;
+
+  /** {@link Color} of the background of every other row. */
+  private static final Color STRIPE = Color.rgb(0, 0, 0, 0.04);
+
+  /** {@link Color} of the background of the header. */
+  private static final Color HEADER = Color.rgb(0, 0, 0, 0.1);
+
+  /** {@link Color} of the row of the address in the program counter. */
+  private static final Color PC = Color.rgb(0, 120, 215, 0.35);
+
+  /** {@link Color} of the row of the address in the address register. */
+  private static final Color AR = Color.rgb(0, 170, 80, 0.25);
+
+  /** {@link Color} of the row of an address which was just written to. */
+  private static final Color WRITE = Color.rgb(255, 170, 0);
+
+  /**
+   * The four digit hexadecimal representation of each value, or {@code null} until it is first
+   * drawn, so that values are not reformatted every time they are drawn.
+   */
+  private static final String[] HEX = new String[1 << 16];
+
+  /** The width of a character of {@link MemoryView#FONT} in pixels. */
+  private final double characterWidth;
+
+  /** {@link Canvas} the grid is drawn on. */
+  private final Canvas canvas;
+
+  /** {@link ScrollBar} whose value is the address of the first visible row. */
+  private final ScrollBar scrollBar;
+
+  /** {@link RAM} which is shown, or {@code null} if there is none. */
+  private RAM ram;
+
+  /** The address in the program counter, or {@code -1} if there is none. */
+  private int pc;
+
+  /** The address in the address register, or {@code -1} if there is none. */
+  private int ar;
+
+  /** Maps each address which is flashing to the {@link System#nanoTime()} it was written at. */
+  private final Map<Integer, Long> flashes;
+
+  /** boolean representing if the grid must be redrawn in the next pulse. */
+  private boolean invalid;
+
+  /** Initializes an empty {@link MemoryView}, which shows nothing until a {@link RAM} is set. */
+  public MemoryView() {
+    Text text = new Text("0");
+    text.setFont(FONT);
+    characterWidth = text.getLayoutBounds().getWidth();
+
+    canvas = new Canvas();
+    scrollBar = new ScrollBar();
+    scrollBar.setOrientation(Orientation.VERTICAL);
+    scrollBar.setMin(0);
+    scrollBar.valueProperty().addListener((observableValue, old, current) -> invalidate());
+    getChildren().addAll(canvas, scrollBar);
+
+    ram = null;
+    pc = -1;
+    ar = -1;
+    flashes = new HashMap<>();
+    invalid = true;
+
+    setMinSize(0, 0);
+    setPrefSize(300, 400);
+    setOnScroll(
+        event -> {
+          scroll(scrollBar.getValue() - Math.signum(event.getDeltaY()) * 3);
+          event.consume();
+        });
+
+    new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        if (invalid || !flashes.isEmpty()) {
+          draw(now);
+        }
+      }
+    }.start();
+  }
+
+  /**
+   * @param ram {@link RAM} to show, which must only be changed on the JavaFX application thread.
+   */
+  public void setRam(RAM ram) {
+    this.ram = ram;
+    flashes.clear();
+    requestLayout();
+    invalidate();
+  }
+
+  /**
+   * @param pc The address in the program counter.
+   */
+  public void setPc(int pc) {
+    this.pc = pc;
+    invalidate();
+  }
+
+  /**
+   * @param ar The address in the address register.
+   */
+  public void setAr(int ar) {
+    this.ar = ar;
+    invalidate();
+  }
+
+  /**
+   * Flashes each of {@code addresses}, which were just written to.
+   *
+   * @param addresses Addresses of this {@link MemoryView#ram} which were written to.
+   */
+  public void written(int[] addresses) {
+    long now = System.nanoTime();
+
+    for (int address : addresses) {
+      flashes.put(address, now);
+    }
+
+    invalidate();
+  }
+
+  /** Redraws the grid in the next pulse, after this {@link MemoryView#ram} changed. */
+  public void invalidate() {
+    invalid = true;
+  }
+
+  /**
+   * Scrolls so that the row of {@code address} is in the middle of the view if it is not visible.
+   *
+   * @param address Address to show.
+   */
+  public void scrollTo(int address) {
+    int first = (int) scrollBar.getValue();
+
+    if (address < first || address >= first + rows()) {
+      scroll(address - rows() / 2);
+    }
+  }
+
+  /**
+   * @param value The address of the first visible row, which is clamped to the range of this {@link
+   *     MemoryView#scrollBar}.
+   */
+  private void scroll(double value) {
+    scrollBar.setValue(Math.max(scrollBar.getMin(), Math.min(scrollBar.getMax(), value)));
+  }
+
+  /**
+   * @return The number of rows which fit below the header.
+   */
+  private int rows() {
+    return Math.max(0, (int) (canvas.getHeight() / ROW_HEIGHT) - 1);
+  }
+
+  /** Sizes the {@link Canvas} and {@link ScrollBar} to this {@link MemoryView}. */
+  @Override
+  protected void layoutChildren() {
+    double barWidth = scrollBar.prefWidth(-1);
+    double width = Math.max(0, getWidth() - barWidth);
+
+    canvas.setWidth(width);
+    canvas.setHeight(getHeight());
+    scrollBar.resizeRelocate(width, 0, barWidth, getHeight());
+
+    int size = ram == null ? 0 : ram.maxAddress() + 1;
+    scrollBar.setMax(Math.max(0, size - rows()));
+    scrollBar.setVisibleAmount(rows());
+    scrollBar.setBlockIncrement(rows());
+    scroll(scrollBar.getValue());
+    invalidate();
+  }
+
+  /**
+   * Draws the header and each visible row, and forgets the flashes which have faded.
+   *
+   * @param now The current {@link System#nanoTime()}.
+   */
+  private void draw(long now) {
+    invalid = false;
+
+    GraphicsContext graphics = canvas.getGraphicsContext2D();
+    double width = canvas.getWidth();
+    graphics.clearRect(0, 0, width, canvas.getHeight());
+
+    if (ram == null) {
+      return;
+    }
+
+    // The left edge of each column
+    double address = PADDING + LABEL_COLUMNS * characterWidth + PADDING;
+    double instruction =
+        address + PADDING + Math.max(7, ram.addressDigits()) * characterWidth + PADDING;
+    double hex = width - PADDING - Math.max(3, ram.valueDigits()) * characterWidth - PADDING;
+    int instructionColumns = (int) Math.max(0, (hex - instruction - 2 * PADDING) / characterWidth);
+
+    graphics.setFont(FONT);
+    graphics.setTextBaseline(VPos.CENTER);
+
+    graphics.setFill(HEADER);
+    graphics.fillRect(0, 0, width, ROW_HEIGHT);
+    graphics.setFill(Color.BLACK);
+    graphics.fillText("Label", PADDING, ROW_HEIGHT / 2);
+    graphics.fillText("Address", address + PADDING, ROW_HEIGHT / 2);
+    graphics.fillText("Instruction", instruction + PADDING, ROW_HEIGHT / 2);
+    graphics.fillText("Hex", hex + PADDING, ROW_HEIGHT / 2);
+
+    int first = (int) scrollBar.getValue();
+    int last = Math.min(ram.maxAddress(), first + rows());
+
+    for (int row = first; row <= last; row++) {
+      double y = (row - first + 1) * ROW_HEIGHT;
+
+      if (row == pc) {
+        graphics.setFill(PC);
+        graphics.fillRect(0, y, width, ROW_HEIGHT);
+      } else if (row == ar) {
+        graphics.setFill(AR);
+        graphics.fillRect(0, y, width, ROW_HEIGHT);
+      } else if (row % 2 == 1) {
+        graphics.setFill(STRIPE);
+        graphics.fillRect(0, y, width, ROW_HEIGHT);
+      }
+
+      Long written = flashes.get(row);
+
+      if (written != null && now - written < FLASH) {
+        graphics.setFill(WRITE.deriveColor(0, 1, 1, 1 - (double) (now - written) / FLASH));
+        graphics.fillRect(0, y, width, ROW_HEIGHT);
+      }
+
+      graphics.setFill(Color.BLACK);
+      graphics.fillText(clip(ram.label(row), LABEL_COLUMNS), PADDING, y + ROW_HEIGHT / 2);
+      graphics.fillText(
+          Utilities.hex(row, ram.addressDigits()), address + PADDING, y + ROW_HEIGHT / 2);
+      graphics.fillText(
+          clip(ram.source(row), instructionColumns), instruction + PADDING, y + ROW_HEIGHT / 2);
+      graphics.fillText(hex(ram.read(row)), hex + PADDING, y + ROW_HEIGHT / 2);
+    }
+
+    // Forgets the flashes which have faded
+    Iterator<Long> iterator = flashes.values().iterator();
+
+    while (iterator.hasNext()) {
+      if (now - iterator.next() >= FLASH) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @param value Value at an address of this {@link MemoryView#ram}.
+   * @return The hexadecimal representation of {@code value} with as many digits as the values of
+   *     this {@link MemoryView#ram}.
+   */
+  private String hex(int value) {
+    if (ram.valueDigits() != 4) {
+      return Utilities.hex(value, ram.valueDigits());
+    }
+
+    String hex = HEX[value];
+
+    if (hex == null) {
+      hex = Utilities.hex(value, 4);
+      HEX[value] = hex;
+    }
+
+    return hex;
+  }
+
+  /**
+   * @param string {@link String} to draw in a column.
+   * @param columns The number of characters which fit in the column.
+   * @return {@code string}, shortened to fit in {@code columns} characters.
+   */
+  private static String clip(String string, int columns) {
+    return string.length() <= columns ? string : string.substring(0, Math.max(0, columns));
+  }
+}
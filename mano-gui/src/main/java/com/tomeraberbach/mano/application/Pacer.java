@@ -0,0 +1,158 @@
+package com.tomeraberbach.mano.application;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which paces the clocks of a {@link Simulation} to a target frequency. Clocks are scheduled
+ * against a fixed origin rather than relative to the previous clock, so time lost to oversleeping
+ * or to a slow batch is made up by the following batches instead of accumulating as drift. The
+ * frequency which is actually achieved is measured over a sliding window so that it can be shown
+ * next to the target.
+ */
+public class Pacer {
+  /** The target frequency which runs as fast as possible. */
+  public static final double UNTHROTTLED = Double.POSITIVE_INFINITY;
+
+  /** The minimum number of nanoseconds to wait between batches of clocks. */
+  private static final long SLICE = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /**
+   * The maximum number of nanoseconds the schedule may fall behind before the missed clocks are
+   * dropped rather than run in a burst.
+   */
+  private static final long MAX_LAG = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /** The number of nanoseconds over which the achieved frequency is measured. */
+  private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+  /** The target frequency in hertz, or {@link Pacer#UNTHROTTLED}. */
+  private double hertz;
+
+  /** The number of nanoseconds between clocks at this {@link Pacer#hertz}. */
+  private double period;
+
+  /** The {@link System#nanoTime()} the first clock of the schedule is due at. */
+  private long origin;
+
+  /** The number of clocks executed since this {@link Pacer#origin}. */
+  private long executed;
+
+  /** The {@link System#nanoTime()} the current measurement window started at. */
+  private long windowStart;
+
+  /** The number of clocks executed in the current measurement window. */
+  private long windowClocks;
+
+  /** The frequency achieved in the last complete measurement window, in hertz. */
+  private double achieved;
+
+  /**
+   * @param hertz The target frequency in hertz, or {@link Pacer#UNTHROTTLED}.
+   */
+  public Pacer(double hertz) {
+    hertz(hertz);
+  }
+
+  /**
+   * Sets the target frequency and restarts the schedule.
+   *
+   * @param hertz The target frequency in hertz, which must be positive, or {@link
+   *     Pacer#UNTHROTTLED}.
+   */
+  public void hertz(double hertz) {
+    if (!(hertz > 0)) {
+      throw new IllegalArgumentException("Invalid frequency " + hertz + ". It must be positive.");
+    }
+
+    this.hertz = hertz;
+    period = TimeUnit.SECONDS.toNanos(1) / hertz;
+    restart(System.nanoTime());
+  }
+
+  /**
+   * @return {@link Pacer#hertz}.
+   */
+  public double hertz() {
+    return hertz;
+  }
+
+  /**
+   * @return boolean representing if this {@link Pacer} runs as fast as possible.
+   */
+  public boolean unthrottled() {
+    return hertz == UNTHROTTLED;
+  }
+
+  /**
+   * @return {@link Pacer#achieved}.
+   */
+  public double achieved() {
+    return achieved;
+  }
+
+  /**
+   * Starts a new schedule whose first clock is due at {@code now}, which must be called whenever
+   * the clocks resume after a pause.
+   *
+   * @param now The current {@link System#nanoTime()}.
+   */
+  public void restart(long now) {
+    origin = now;
+    executed = 0;
+    windowStart = now;
+    windowClocks = 0;
+  }
+
+  /**
+   * @param now The current {@link System#nanoTime()}.
+   * @return The number of clocks which are due by {@code now}, or {@link Long#MAX_VALUE} if this
+   *     {@link Pacer} is unthrottled.
+   */
+  public long due(long now) {
+    if (unthrottled()) {
+      return Long.MAX_VALUE;
+    }
+
+    long due = (long) ((now - origin) / period) + 1 - executed;
+    long limit = Math.max(1, (long) (MAX_LAG / period));
+
+    if (due > limit) {
+      // Drops the clocks the schedule fell too far behind on
+      origin += (long) ((due - limit) * period);
+      due = limit;
+    }
+
+    return Math.max(0, due);
+  }
+
+  /**
+   * @param now The current {@link System#nanoTime()}.
+   * @return The number of nanoseconds to wait before the next clock is due, which is at least one
+   *     time slice so that fast schedules run their clocks in batches.
+   */
+  public long remaining(long now) {
+    if (unthrottled()) {
+      return 0;
+    }
+
+    return Math.max(SLICE, origin + (long) (executed * period) - now);
+  }
+
+  /**
+   * Records that {@code clocks} clocks were executed and updates {@link Pacer#achieved} once the
+   * current measurement window is over.
+   *
+   * @param clocks The number of clocks which were executed.
+   * @param now The current {@link System#nanoTime()}.
+   */
+  public void executed(long clocks, long now) {
+    executed += clocks;
+    windowClocks += clocks;
+
+    if (now - windowStart >= WINDOW) {
+      achieved = windowClocks * (double) TimeUnit.SECONDS.toNanos(1) / (now - windowStart);
+      windowStart = now;
+      windowClocks = 0;
+    }
+  }
+}
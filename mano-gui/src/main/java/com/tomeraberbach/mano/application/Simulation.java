@@ -0,0 +1,510 @@
+package com.tomeraberbach.mano.application;
+
+import com.tomeraberbach.mano.simulation.Computer;
+import com.tomeraberbach.mano.simulation.Engine;
+import com.tomeraberbach.mano.simulation.Image;
+import com.tomeraberbach.mano.simulation.Microoperation;
+import com.tomeraberbach.mano.simulation.RAM;
+import com.tomeraberbach.mano.simulation.Register;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Class which runs a {@link Computer} on its own thread for the {@link Main} application. The
+ * thread is the only one which touches the {@link Computer} once it is passed in, so every change
+ * the application wants to make is submitted as a command. The state of the {@link Computer} is
+ * published as a {@link Frame} whenever the previous one has been taken with {@link
+ * Simulation#poll()}, so however fast the {@link Computer} runs, the application is only brought up
+ * to date as often as it asks to be. The clocks are paced to a target frequency by a {@link Pacer}.
+ * A {@link RuntimeException} thrown by a command or a clock, such as the one thrown for an indirect
+ * operand outside of the {@link RAM}, stops the run and is published rather than ending the thread.
+ */
+public class Simulation {
+  /**
+   * The maximum number of instructions executed between checks for commands when unthrottled, and
+   * of clocks when paced.
+   */
+  private static final long BATCH = 1 << 16;
+
+  /**
+   * The {@link Engine} which runs the {@link Computer} when unthrottled. {@link Engine#TRANSLATION}
+   * is not used, since it was measured running the small loops of typical programs slower than
+   * {@link Engine#INSTRUCTION}.
+   */
+  private static final Engine UNTHROTTLED = Engine.INSTRUCTION;
+
+  /**
+   * The number of nanoseconds to wait for a {@link Frame} to be taken before publishing changes
+   * made while the previous one was still pending.
+   */
+  private static final long FRAME = TimeUnit.SECONDS.toNanos(1) / 60;
+
+  /** {@link Computer} which is run. */
+  private final Computer computer;
+
+  /** The {@link Register} instances of this {@link Simulation#computer} which are published. */
+  private final Register[] registers;
+
+  /** Commands waiting to be run on the thread of this {@link Simulation}. */
+  private final ConcurrentLinkedQueue<Runnable> commands;
+
+  /** The thread which runs this {@link Simulation#computer}. */
+  private final Thread thread;
+
+  /** The most recently published {@link Frame}, or {@code null} if it has been taken. */
+  private final AtomicReference<Frame> frame;
+
+  /** {@link Pacer} which paces the clocks of this {@link Simulation#computer}. */
+  private final Pacer pacer;
+
+  /** boolean representing if this {@link Simulation#computer} is running. */
+  private boolean running;
+
+  /** boolean representing if the last run stopped because the {@link Computer} halted. */
+  private boolean halted;
+
+  /**
+   * {@link RuntimeException} thrown since the last {@link Frame}, or {@code null} if there was
+   * none.
+   */
+  private RuntimeException error;
+
+  /**
+   * boolean representing if this {@link Simulation#computer} changed since the last {@link Frame}.
+   */
+  private boolean stale;
+
+  /** The most recently executed {@link Microoperation}, or {@code null} if there is none. */
+  private Microoperation microoperation;
+
+  /**
+   * {@link Image} the {@link RAM} was last loaded with since the last {@link Frame}, or {@code
+   * null} if it was not loaded or cleared.
+   */
+  private Image image;
+
+  /**
+   * Starts the thread of this {@link Simulation}, which is a daemon thread so that it does not keep
+   * the application alive.
+   *
+   * @param computer {@link Computer} to run, which must not be touched by any other thread from now
+   *     on.
+   */
+  public Simulation(Computer computer) {
+    this.computer = computer;
+    registers =
+        new Register[] {
+          computer.pc(),
+          computer.ar(),
+          computer.ir(),
+          computer.dr(),
+          computer.ac(),
+          computer.tr(),
+          computer.inpr(),
+          computer.outr(),
+          computer.i(),
+          computer.s(),
+          computer.e(),
+          computer.r(),
+          computer.ien(),
+          computer.fgi(),
+          computer.fgo()
+        };
+    commands = new ConcurrentLinkedQueue<>();
+    frame = new AtomicReference<>();
+    pacer = new Pacer(Pacer.UNTHROTTLED);
+    running = false;
+    halted = false;
+    error = null;
+    stale = true;
+    microoperation = null;
+    image = null;
+
+    RAM ram = computer.ram();
+    ram.addClearListener(() -> image = new Image(0, ram.addressSize(), ram.valueSize()));
+
+    thread = new Thread(this::loop, "Mano simulation");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * @return {@link Simulation#registers}, whose values are published in the same order by {@link
+   *     Frame#values()}.
+   */
+  public Register[] registers() {
+    return registers;
+  }
+
+  /**
+   * @param hertz The target frequency of the clocks in hertz, or {@link Pacer#UNTHROTTLED} to run
+   *     as fast as possible.
+   */
+  public void hertz(double hertz) {
+    submit(() -> pacer.hertz(hertz));
+  }
+
+  /**
+   * Runs {@code command} on the thread of this {@link Simulation} between clocks.
+   *
+   * @param command {@link Consumer} to call with this {@link Simulation#computer}.
+   */
+  public void execute(Consumer<Computer> command) {
+    submit(() -> command.accept(computer));
+  }
+
+  /**
+   * Queues {@code command} and wakes the thread of this {@link Simulation} to run it.
+   *
+   * @param command {@link Runnable} to run on the thread of this {@link Simulation}.
+   */
+  private void submit(Runnable command) {
+    commands.add(command);
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Runs this {@link Simulation#computer} until it halts or {@link Simulation#stop()} is called.
+   */
+  public void start() {
+    submit(
+        () -> {
+          running = true;
+          halted = false;
+          pacer.restart(System.nanoTime());
+        });
+  }
+
+  /** Stops running this {@link Simulation#computer}. */
+  public void stop() {
+    submit(() -> running = false);
+  }
+
+  /**
+   * Stops running this {@link Simulation#computer} and loads it with {@code image}.
+   *
+   * @param image {@link Image} to load this {@link Simulation#computer} with.
+   */
+  public void load(Image image) {
+    submit(
+        () -> {
+          running = false;
+          microoperation = null;
+          computer.load(image);
+          this.image = image;
+        });
+  }
+
+  /**
+   * Stops running this {@link Simulation#computer} and executes the next {@link Microoperation} of
+   * the current clock, decoding the clock first if none are pending.
+   */
+  public void step() {
+    submit(
+        () -> {
+          running = false;
+
+          if (computer.s().value(0)) {
+            if (computer.microoperations().isEmpty()) {
+              computer.tick();
+            }
+
+            Microoperation next = computer.microoperations().poll();
+
+            if (next != null) {
+              next.execute(computer);
+              microoperation = next;
+            }
+          }
+        });
+  }
+
+  /**
+   * @return The most recently published {@link Frame}, which will not be returned again, or {@code
+   *     null} if nothing changed since the last call.
+   */
+  public Frame poll() {
+    return frame.getAndSet(null);
+  }
+
+  /**
+   * Runs commands and clocks until the thread is interrupted, publishing a {@link Frame} whenever
+   * the previous one has been taken. The thread parks whenever there is nothing to do, and is
+   * unparked by every command. A {@link RuntimeException} stops running this {@link
+   * Simulation#computer} and is kept for the next {@link Frame}.
+   */
+  private void loop() {
+    while (!Thread.interrupted()) {
+      Runnable command = commands.poll();
+
+      if (command != null || running) {
+        try {
+          if (command != null) {
+            command.run();
+            stale = true;
+          } else {
+            advance();
+          }
+        } catch (RuntimeException e) {
+          running = false;
+          error = e;
+          stale = true;
+        }
+      } else if (stale) {
+        // Retries publishing once the last frame has had time to be taken
+        LockSupport.parkNanos(this, FRAME);
+      } else {
+        LockSupport.park(this);
+      }
+
+      if (stale && frame.get() == null) {
+        publish();
+      }
+    }
+  }
+
+  /**
+   * Executes the clocks of this {@link Simulation#computer} which are due according to this {@link
+   * Simulation#pacer}, or a batch of instructions with {@link Simulation#UNTHROTTLED} if it is
+   * unthrottled, and stops running once it halts. Either way a program ends in the same state. If
+   * no clocks are due the thread parks until the next one is.
+   */
+  private void advance() {
+    if (computer.s().value(0)) {
+      if (pacer.unthrottled()) {
+        // Ends in the same state as clocking would, which EngineTest checks for every engine
+        long executed = computer.run(UNTHROTTLED, BATCH);
+        pacer.executed(executed, System.nanoTime());
+        microoperation = null;
+      } else {
+        long now = System.nanoTime();
+        long due = Math.min(pacer.due(now), BATCH);
+
+        if (due == 0) {
+          long remaining = pacer.remaining(now);
+          LockSupport.parkNanos(this, stale ? Math.min(remaining, FRAME) : remaining);
+          return;
+        }
+
+        long executed = 0;
+
+        while (executed < due && computer.s().value(0)) {
+          microoperation = computer.clock();
+          executed++;
+        }
+
+        pacer.executed(executed, System.nanoTime());
+      }
+
+      stale = true;
+    }
+
+    if (!computer.s().value(0)) {
+      running = false;
+      halted = true;
+      stale = true;
+    }
+  }
+
+  /** Publishes the changes to this {@link Simulation#computer} since the last {@link Frame}. */
+  private void publish() {
+    int[] values = new int[registers.length];
+
+    for (int i = 0; i < registers.length; i++) {
+      values[i] = registers[i].value();
+    }
+
+    int[] addresses = computer.ram().dirty().stream().toArray();
+    int[] words = new int[addresses.length];
+
+    for (int i = 0; i < addresses.length; i++) {
+      words[i] = computer.ram().read(addresses[i]);
+    }
+
+    frame.set(
+        new Frame(
+            computer.sc(),
+            registers,
+            values,
+            microoperation,
+            image,
+            addresses,
+            words,
+            halted,
+            error,
+            pacer.achieved(),
+            pacer.unthrottled()));
+
+    computer.ram().clean();
+    image = null;
+    halted = false;
+    error = null;
+    stale = false;
+  }
+
+  /** Class representing a consistent snapshot of the changes to a {@link Computer}. */
+  public static class Frame {
+    /** The sequence counter. */
+    private final int sc;
+
+    /** The {@link Register} instances whose values are in {@link Frame#values}. */
+    private final Register[] registers;
+
+    /** The value of each of {@link Frame#registers}. */
+    private final int[] values;
+
+    /** The most recently executed {@link Microoperation}, or {@code null} if there is none. */
+    private final Microoperation microoperation;
+
+    /**
+     * {@link Image} the {@link RAM} was loaded with, or cleared to, before the writes of this
+     * {@link Frame}, or {@code null} if it was not.
+     */
+    private final Image image;
+
+    /** The addresses of the {@link RAM} which were written to. */
+    private final int[] addresses;
+
+    /** The value at each of {@link Frame#addresses}. */
+    private final int[] words;
+
+    /** boolean representing if a run stopped because the {@link Computer} halted. */
+    private final boolean halted;
+
+    /**
+     * {@link RuntimeException} which stopped a run or a command, or {@code null} if there was none.
+     */
+    private final RuntimeException error;
+
+    /**
+     * The frequency achieved while running, in clocks per second, or in instructions per second if
+     * {@link Frame#unthrottled}.
+     */
+    private final double achieved;
+
+    /** boolean representing if the {@link Computer} was run as fast as possible. */
+    private final boolean unthrottled;
+
+    /**
+     * @param sc The sequence counter.
+     * @param registers The {@link Register} instances whose values are in {@code values}.
+     * @param values The value of each of {@code registers}.
+     * @param microoperation The most recently executed {@link Microoperation}, or {@code null} if
+     *     there is none.
+     * @param image {@link Image} the {@link RAM} was loaded with, or cleared to, before the writes
+     *     of this {@link Frame}, or {@code null} if it was not.
+     * @param addresses The addresses of the {@link RAM} which were written to.
+     * @param words The value at each of {@code addresses}.
+     * @param halted boolean representing if a run stopped because the {@link Computer} halted.
+     * @param error {@link RuntimeException} which stopped a run or a command, or {@code null} if
+     *     there was none.
+     * @param achieved The frequency achieved while running, in clocks per second, or in
+     *     instructions per second if {@code unthrottled}.
+     * @param unthrottled boolean representing if the {@link Computer} was run as fast as possible.
+     */
+    private Frame(
+        int sc,
+        Register[] registers,
+        int[] values,
+        Microoperation microoperation,
+        Image image,
+        int[] addresses,
+        int[] words,
+        boolean halted,
+        RuntimeException error,
+        double achieved,
+        boolean unthrottled) {
+      this.sc = sc;
+      this.registers = registers;
+      this.values = values;
+      this.microoperation = microoperation;
+      this.image = image;
+      this.addresses = addresses;
+      this.words = words;
+      this.halted = halted;
+      this.error = error;
+      this.achieved = achieved;
+      this.unthrottled = unthrottled;
+    }
+
+    /**
+     * @return {@link Frame#sc}.
+     */
+    public int sc() {
+      return sc;
+    }
+
+    /**
+     * @return {@link Frame#registers}.
+     */
+    public Register[] registers() {
+      return registers;
+    }
+
+    /**
+     * @return {@link Frame#values}.
+     */
+    public int[] values() {
+      return values;
+    }
+
+    /**
+     * @return {@link Frame#microoperation}.
+     */
+    public Microoperation microoperation() {
+      return microoperation;
+    }
+
+    /**
+     * @return {@link Frame#image}.
+     */
+    public Image image() {
+      return image;
+    }
+
+    /**
+     * @return {@link Frame#addresses}.
+     */
+    public int[] addresses() {
+      return addresses;
+    }
+
+    /**
+     * @return {@link Frame#words}.
+     */
+    public int[] words() {
+      return words;
+    }
+
+    /**
+     * @return {@link Frame#halted}.
+     */
+    public boolean halted() {
+      return halted;
+    }
+
+    /**
+     * @return {@link Frame#error}.
+     */
+    public RuntimeException error() {
+      return error;
+    }
+
+    /**
+     * @return {@link Frame#achieved}.
+     */
+    public double achieved() {
+      return achieved;
+    }
+
+    /**
+     * @return {@link Frame#unthrottled}.
+     */
+    public boolean unthrottled() {
+      return unthrottled;
+    }
+  }
+}
@@ -0,0 +1,12 @@
+/** JavaFX application for editing, assembling and simulating programs for Mano's basic computer. */
+module com.tomeraberbach.mano.gui {
+  requires com.tomeraberbach.mano.assembler;
+  requires javafx.controls;
+  requires javafx.fxml;
+
+  exports com.tomeraberbach.mano.application to
+      javafx.graphics;
+
+  opens com.tomeraberbach.mano.application to
+      javafx.fxml;
+}
@@ -0,0 +1,87 @@
+package com.tomeraberbach.mano.application;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.tomeraberbach.mano.simulation.Computer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Tests of {@link Simulation}. */
+public class SimulationTest {
+  /** The address the program is loaded at. */
+  private static final int ORIGIN = 0x100;
+
+  /**
+   * A program which indirectly loads through an address pointing past the end of the {@link
+   * com.tomeraberbach.mano.simulation.RAM} once it has been incremented.
+   */
+  private static final int[] FAILING = {
+    0x7200, // 100 CMA
+    0x3180, // 101 STA 180
+    0xA183, // 102 LDA 183 I
+    0x6183, // 103 ISZ 183
+    0x4100, // 104 BUN 100
+  };
+
+  /** The number of seconds to wait for the thread of a {@link Simulation}. */
+  private static final long TIMEOUT = 10;
+
+  /**
+   * A {@link RuntimeException} thrown while running stops the run and is published, and the thread
+   * still runs commands and programs afterwards.
+   */
+  @Test
+  public void failedRunKeepsThreadAlive() throws InterruptedException {
+    Simulation simulation = new Simulation(new Computer());
+
+    for (int run = 0; run < 2; run++) {
+      simulation.execute(SimulationTest::load);
+      simulation.start();
+      Simulation.Frame frame = error(simulation);
+
+      assertInstanceOf(IllegalArgumentException.class, frame.error());
+      assertFalse(frame.halted());
+    }
+
+    CountDownLatch latch = new CountDownLatch(1);
+    simulation.execute(computer -> latch.countDown());
+    assertTrue(latch.await(TIMEOUT, TimeUnit.SECONDS));
+  }
+
+  /**
+   * @param computer {@link Computer} to load with {@link SimulationTest#FAILING} and start.
+   */
+  private static void load(Computer computer) {
+    for (int i = 0; i < FAILING.length; i++) {
+      computer.ram().write(ORIGIN + i, FAILING[i]);
+    }
+
+    computer.ram().write(0x183, 0x0FE0);
+    computer.pc().load(ORIGIN);
+    computer.s().load(1);
+  }
+
+  /**
+   * @param simulation {@link Simulation} to poll.
+   * @return The first {@link Simulation.Frame} published by {@code simulation} with an error.
+   */
+  private static Simulation.Frame error(Simulation simulation) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+
+    while (System.nanoTime() < deadline) {
+      Simulation.Frame frame = simulation.poll();
+
+      if (frame != null && frame.error() != null) {
+        return frame;
+      }
+
+      Thread.sleep(1);
+    }
+
+    return fail("No error was published.");
+  }
+}